@@ -0,0 +1,158 @@
+package MorphologicalAnalysis;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+public class AnalysisCache<K, V> {
+
+    private final CacheSegment<K, V>[] segments;
+    private final int segmentMask;
+    private final int cacheSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor of AnalysisCache class. The cache is divided into segments, each having its own lock, so that
+     * threads working on different keys do not wait for each other. The number of segments is a power of two, four
+     * times the number of processors, but small caches use fewer segments so that each segment holds at least 16 keys.
+     *
+     * @param cacheSize Maximum number of keys in the cache.
+     */
+    @SuppressWarnings("unchecked")
+    public AnalysisCache(int cacheSize) {
+        int segmentCount = 1;
+        int maxSegmentCount = 4 * Runtime.getRuntime().availableProcessors();
+        while (segmentCount < maxSegmentCount && 2 * segmentCount * 16 <= cacheSize) {
+            segmentCount <<= 1;
+        }
+        this.cacheSize = cacheSize;
+        segments = new CacheSegment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new CacheSegment<>((cacheSize + segmentCount - 1) / segmentCount);
+        }
+        segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * Returns the segment of the key with the given spread hash.
+     *
+     * @param hash Spread hash of the key.
+     * @return Segment of the key.
+     */
+    private CacheSegment<K, V> segmentFor(int hash) {
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    /**
+     * Checks if the key exists in the cache.
+     *
+     * @param key Key to search.
+     * @return True if the key exists, false otherwise.
+     */
+    public boolean contains(K key) {
+        return segmentFor(CacheSegment.spread(key.hashCode())).contains(key);
+    }
+
+    /**
+     * Returns the value of the key and records the access for the admission policy.
+     *
+     * @param key Key to search.
+     * @return Value of the key if it exists, null otherwise.
+     */
+    public V get(K key) {
+        int hash = CacheSegment.spread(key.hashCode());
+        V value = segmentFor(hash).get(key, hash);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Adds the key with its value to the cache. If the segment of the key is full, either the key or the least
+     * recently used key of the segment is evicted, depending on their estimated frequencies.
+     *
+     * @param key   Key to add.
+     * @param value Value of the key.
+     */
+    public void add(K key, V value) {
+        segmentFor(CacheSegment.spread(key.hashCode())).add(key, value);
+    }
+
+    /**
+     * Calls the action for each key and value in the cache.
+     *
+     * @param action Action to call.
+     */
+    public void forEach(BiConsumer<K, V> action) {
+        for (CacheSegment<K, V> segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    /**
+     * Returns the number of keys in the cache.
+     *
+     * @return Number of keys in the cache.
+     */
+    public int size() {
+        int size = 0;
+        for (CacheSegment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of keys in the cache.
+     *
+     * @return Maximum number of keys in the cache.
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Returns the number of keys evicted from the cache.
+     *
+     * @return Number of evicted keys.
+     */
+    public long evictionCount() {
+        long evictions = 0;
+        for (CacheSegment<K, V> segment : segments) {
+            evictions += segment.evictionCount();
+        }
+        return evictions;
+    }
+
+    /**
+     * Returns the number of calls of get that found the key.
+     *
+     * @return Number of cache hits.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of calls of get that did not find the key.
+     *
+     * @return Number of cache misses.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters of the cache. The contents of the cache are not changed.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        for (CacheSegment<K, V> segment : segments) {
+            segment.resetStatistics();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package MorphologicalAnalysis;
+
+public enum AnalysisPath {
+    /**
+     * Surface form is found in the parsedSurfaceForms list : Ahmet
+     */
+    PARSED_SURFACE_FORM,
+    /**
+     * Analysis is found in the cache : evlerimizde
+     */
+    CACHE_HIT,
+    /**
+     * Surface form is found in the cache of unanalyzable forms : xqzwvbn
+     */
+    NEGATIVE_CACHE_HIT,
+    /**
+     * Analysis is found in the precompiled full-form lexicon : evlerimizde
+     */
+    LEXICON_HIT,
+    /**
+     * Punctuation, number, date, time, range, percent, hashtag or mail : 3/10/2023
+     */
+    SPECIAL_TOKEN,
+    /**
+     * Full search of the finite state machine from the dictionary roots : evlerimizde
+     */
+    FSM_SEARCH,
+    /**
+     * Search after adding the part before the apostrophe as a new root : 3'ü, Google'ı
+     */
+    APOSTROPHE_ROOT,
+    /**
+     * Additional work of robustMorphologicalAnalysis when no analysis is found : googlecılardan
+     */
+    ROBUST_FALLBACK
+}
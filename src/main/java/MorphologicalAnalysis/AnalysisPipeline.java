@@ -0,0 +1,296 @@
+package MorphologicalAnalysis;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.*;
+
+public class AnalysisPipeline {
+
+    private final FsmMorphologicalAnalyzer analyzer;
+    private final int workerCount;
+    private final int queueCapacity;
+    private final int batchSize;
+    private boolean robust = false;
+    private PrintStream progressStream = System.err;
+    private long progressInterval = 1000000;
+    private static final Batch END_OF_INPUT = new Batch(CompletableFuture.completedFuture(null), 0);
+
+    /**
+     * A batch submitted to the workers, kept as the future of its output together with the number of its tokens, so
+     * that the writer can report the progress without parsing the output.
+     */
+    private static class Batch {
+        final Future<String> output;
+        final int tokenCount;
+
+        Batch(Future<String> output, int tokenCount) {
+            this.output = output;
+            this.tokenCount = tokenCount;
+        }
+    }
+
+    /**
+     * Constructor of AnalysisPipeline class. The pipeline consists of a reader, workerCount analyzer workers sharing
+     * the given analyzer, and a writer which writes the analyses in the order of the input tokens. The reader puts
+     * batches of at most batchSize tokens into a queue of at most queueCapacity batches; when the queue is full, the
+     * reader waits until the writer consumes a batch. Therefore, the memory used by the pipeline does not depend on the
+     * size of the input.
+     *
+     * @param analyzer      Morphological analyzer shared by the workers.
+     * @param workerCount   Number of analyzer workers.
+     * @param queueCapacity Maximum number of batches read but not written yet.
+     * @param batchSize     Maximum number of tokens in a batch.
+     */
+    public AnalysisPipeline(FsmMorphologicalAnalyzer analyzer, int workerCount, int queueCapacity, int batchSize) {
+        this.analyzer = analyzer;
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Constructor of AnalysisPipeline class with one worker per available processor, a queue of four batches per
+     * worker and batches of 1000 tokens.
+     *
+     * @param analyzer Morphological analyzer shared by the workers.
+     */
+    public AnalysisPipeline(FsmMorphologicalAnalyzer analyzer) {
+        this(analyzer, Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors(), 1000);
+    }
+
+    /**
+     * Sets whether the workers use robustMorphologicalAnalysis instead of morphologicalAnalysis.
+     *
+     * @param robust If true, robustMorphologicalAnalysis is used.
+     */
+    public void setRobust(boolean robust) {
+        this.robust = robust;
+    }
+
+    /**
+     * Sets the stream to which progress and throughput are reported. Progress is reported each time progressInterval
+     * more tokens are written. If the stream is null, nothing is reported.
+     *
+     * @param progressStream   Stream to report the progress.
+     * @param progressInterval Number of tokens between two progress reports.
+     */
+    public void setProgressStream(PrintStream progressStream, long progressInterval) {
+        this.progressStream = progressStream;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Analyzes the tokens in a batch and returns the output of the batch. For each token, the token is written in a
+     * line, followed by its analyses each in a separate line, followed by an empty line.
+     *
+     * @param tokens Tokens in the batch.
+     * @return Output of the batch.
+     */
+    private String analyzeBatch(ArrayList<String> tokens) {
+        StringBuilder result = new StringBuilder();
+        for (String token : tokens) {
+            FsmParseList fsmParseList;
+            if (robust) {
+                fsmParseList = analyzer.robustMorphologicalAnalysis(token);
+            } else {
+                fsmParseList = analyzer.morphologicalAnalysis(token);
+            }
+            result.append(token).append("\n");
+            for (int i = 0; i < fsmParseList.size(); i++) {
+                result.append(fsmParseList.getFsmParse(i).toString()).append("\n");
+            }
+            result.append("\n");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Checks if the character separates tokens. The separators are the whitespace characters of the regular
+     * expressions, which include the line terminators.
+     *
+     * @param c Character to check.
+     * @return True if the character is a space, tab, line feed, vertical tab, form feed or carriage return.
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Submits a batch to the workers and puts it to the queue.
+     *
+     * @param tokens  Tokens in the batch.
+     * @param workers Executor of the analyzer workers.
+     * @param queue   Queue of the batches.
+     * @throws InterruptedException If the reader is interrupted while waiting for the queue.
+     */
+    private void submitBatch(ArrayList<String> tokens, ExecutorService workers, BlockingQueue<Batch> queue) throws InterruptedException {
+        queue.put(new Batch(workers.submit(() -> analyzeBatch(tokens)), tokens.size()));
+    }
+
+    /**
+     * Reads the tokens from the input, separated by whitespace, and submits them in batches to the workers. The input
+     * is scanned character by character through a fixed buffer, so that only the current token is kept in memory
+     * however long the lines of the input are. Each batch is put to the queue in the input order.
+     *
+     * @param input   Input to read the tokens.
+     * @param workers Executor of the analyzer workers.
+     * @param queue   Queue of the batches.
+     * @param tokenCount Counts the tokens read.
+     * @throws IOException If the input can not be read.
+     * @throws InterruptedException If the reader is interrupted while waiting for the queue.
+     */
+    private void readTokens(Reader input, ExecutorService workers, BlockingQueue<Batch> queue, long[] tokenCount) throws IOException, InterruptedException {
+        char[] buffer = new char[8192];
+        StringBuilder token = new StringBuilder();
+        ArrayList<String> batch = new ArrayList<>(batchSize);
+        int length;
+        while ((length = input.read(buffer)) != -1) {
+            for (int i = 0; i < length; i++) {
+                if (!isSeparator(buffer[i])) {
+                    token.append(buffer[i]);
+                } else {
+                    if (token.length() > 0) {
+                        batch.add(token.toString());
+                        token.setLength(0);
+                        tokenCount[0]++;
+                        if (batch.size() == batchSize) {
+                            submitBatch(batch, workers, queue);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                }
+            }
+        }
+        if (token.length() > 0) {
+            batch.add(token.toString());
+            tokenCount[0]++;
+        }
+        if (!batch.isEmpty()) {
+            submitBatch(batch, workers, queue);
+        }
+    }
+
+    /**
+     * Runs the pipeline. A reader thread reads the tokens from the input, the workers analyze them, and the calling
+     * thread writes the analyses to the output in the input order. The reader always ends the queue, even if reading
+     * fails, and the error of the reader is thrown by the calling thread after the batches read before it are written.
+     *
+     * @param input  Input to read the tokens.
+     * @param output Output to write the analyses.
+     * @return Number of tokens analyzed.
+     * @throws IOException If the input can not be read or the output can not be written.
+     */
+    public long run(Reader input, Writer output) throws IOException {
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        long[] tokenCount = new long[1];
+        Throwable[] readError = new Throwable[1];
+        Thread readerThread = new Thread(() -> {
+            try {
+                readTokens(input, workers, queue, tokenCount);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                readError[0] = e;
+            } finally {
+                try {
+                    queue.put(END_OF_INPUT);
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }, "AnalysisPipeline-reader");
+        long startTime = System.nanoTime();
+        long writtenTokens = 0;
+        long nextReport = progressInterval;
+        readerThread.start();
+        try {
+            Batch batch;
+            while ((batch = queue.take()) != END_OF_INPUT) {
+                output.write(batch.output.get());
+                writtenTokens += batch.tokenCount;
+                if (progressStream != null && writtenTokens >= nextReport) {
+                    reportProgress(writtenTokens, startTime);
+                    nextReport += progressInterval;
+                }
+            }
+            readerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            readerThread.interrupt();
+            workers.shutdownNow();
+        }
+        output.flush();
+        if (readError[0] instanceof IOException) {
+            throw (IOException) readError[0];
+        }
+        if (readError[0] instanceof RuntimeException) {
+            throw (RuntimeException) readError[0];
+        }
+        if (readError[0] instanceof Error) {
+            throw (Error) readError[0];
+        }
+        if (progressStream != null) {
+            reportProgress(writtenTokens, startTime);
+        }
+        return tokenCount[0];
+    }
+
+    /**
+     * Runs the pipeline on files. The input file is read and the output file is written with UTF-8 encoding.
+     *
+     * @param input  Path of the input file.
+     * @param output Path of the output file.
+     * @return Number of tokens analyzed.
+     * @throws IOException If the input can not be read or the output can not be written.
+     */
+    public long run(Path input, Path output) throws IOException {
+        try (Reader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            return run(reader, writer);
+        }
+    }
+
+    /**
+     * Reports the number of tokens written and the throughput since the start of the pipeline.
+     *
+     * @param writtenTokens Number of tokens written.
+     * @param startTime     Start time of the pipeline in nanoseconds.
+     */
+    private void reportProgress(long writtenTokens, long startTime) {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        progressStream.printf("%d tokens analyzed in %.1f seconds, %.0f tokens/second%n", writtenTokens, seconds, writtenTokens / Math.max(seconds, 1e-9));
+    }
+
+    /**
+     * Command line entry point. Usage: AnalysisPipeline inputFile outputFile [workerCount] [-robust]
+     *
+     * @param args Command line arguments.
+     * @throws IOException If the input can not be read or the output can not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: AnalysisPipeline inputFile outputFile [workerCount] [-robust]");
+            System.exit(1);
+        }
+        int workerCount = Runtime.getRuntime().availableProcessors();
+        boolean robust = false;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("-robust")) {
+                robust = true;
+            } else {
+                workerCount = Integer.parseInt(args[i]);
+            }
+        }
+        AnalysisPipeline pipeline = new AnalysisPipeline(new FsmMorphologicalAnalyzer(), workerCount, 4 * workerCount, 1000);
+        pipeline.setRobust(robust);
+        pipeline.run(Paths.get(args[0]), Paths.get(args[1]));
+    }
+}
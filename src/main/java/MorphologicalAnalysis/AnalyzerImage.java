@@ -0,0 +1,97 @@
+package MorphologicalAnalysis;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+public class AnalyzerImage {
+
+    private static final int MAGIC = 0x46534D49;
+    private static final int VERSION = 1;
+    private final FiniteStateMachine finiteStateMachine;
+    private final ArrayList<String> suffixes;
+    private final HashMap<String, String> pronunciations;
+
+    /**
+     * Constructor of AnalyzerImage class. It reads an image written by the save method in one pass, without parsing
+     * xml or tokenizing text files. The image holds the finite state machine, the suffixes of the suffix trie and the
+     * pronunciations of the foreign words.
+     *
+     * @param fileName Name of the image file.
+     * @throws IOException If the file can not be read, or it is not an analyzer image of this version.
+     */
+    public AnalyzerImage(String fileName) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName), 1 << 16))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION) {
+                throw new IOException(fileName + " is not an analyzer image");
+            }
+            finiteStateMachine = new FiniteStateMachine(inputStream);
+            int suffixCount = inputStream.readInt();
+            suffixes = new ArrayList<>(suffixCount);
+            for (int i = 0; i < suffixCount; i++) {
+                suffixes.add(inputStream.readUTF());
+            }
+            int pronunciationCount = inputStream.readInt();
+            pronunciations = new HashMap<>();
+            for (int i = 0; i < pronunciationCount; i++) {
+                pronunciations.put(inputStream.readUTF(), inputStream.readUTF());
+            }
+        }
+    }
+
+    /**
+     * Writes an analyzer image. The file starts with a magic number and the version of the format, followed by the
+     * finite state machine, the suffixes and the pronunciations.
+     *
+     * @param fileName           Name of the image file.
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param suffixes           Suffixes of the suffix trie, not reversed.
+     * @param pronunciations     Foreign words and their pronunciations.
+     * @throws IOException If the file can not be written.
+     */
+    public static void save(String fileName, FiniteStateMachine finiteStateMachine, ArrayList<String> suffixes,
+                            HashMap<String, String> pronunciations) throws IOException {
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            finiteStateMachine.write(outputStream);
+            outputStream.writeInt(suffixes.size());
+            for (String suffix : suffixes) {
+                outputStream.writeUTF(suffix);
+            }
+            outputStream.writeInt(pronunciations.size());
+            for (Map.Entry<String, String> entry : pronunciations.entrySet()) {
+                outputStream.writeUTF(entry.getKey());
+                outputStream.writeUTF(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Accessor for the finite state machine.
+     *
+     * @return Finite state machine of the image.
+     */
+    public FiniteStateMachine getFiniteStateMachine() {
+        return finiteStateMachine;
+    }
+
+    /**
+     * Accessor for the suffixes.
+     *
+     * @return Suffixes of the suffix trie, not reversed.
+     */
+    public ArrayList<String> getSuffixes() {
+        return suffixes;
+    }
+
+    /**
+     * Accessor for the pronunciations.
+     *
+     * @return Foreign words and their pronunciations.
+     */
+    public HashMap<String, String> getPronunciations() {
+        return pronunciations;
+    }
+}
@@ -0,0 +1,232 @@
+package MorphologicalAnalysis;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class AnalyzerStatistics {
+
+    private static final int BUCKET_COUNT = 40;
+    private final LongAdder[] counts;
+    private final LongAdder[] totalTimes;
+    private final LongAdder[][] histograms;
+    private final AnalysisCache<String, FsmParseList> cache;
+    private final AnalysisCache<String, Boolean> negativeCache;
+
+    /**
+     * Constructor of AnalyzerStatistics class. For each analysis path, it keeps the number of analyses, their total
+     * time and a histogram of their times, where the i'th bucket counts the analyses taking between 2^i and 2^(i+1)
+     * nanoseconds. All counters are {@link LongAdder}s, so that recording does not make the analyzing threads wait for
+     * each other.
+     *
+     * @param cache         Cache of the analyzer. Can be null.
+     * @param negativeCache Cache of the unanalyzable surface forms of the analyzer. Can be null.
+     */
+    public AnalyzerStatistics(AnalysisCache<String, FsmParseList> cache, AnalysisCache<String, Boolean> negativeCache) {
+        int pathCount = AnalysisPath.values().length;
+        this.cache = cache;
+        this.negativeCache = negativeCache;
+        counts = new LongAdder[pathCount];
+        totalTimes = new LongAdder[pathCount];
+        histograms = new LongAdder[pathCount][BUCKET_COUNT];
+        for (int i = 0; i < pathCount; i++) {
+            counts[i] = new LongAdder();
+            totalTimes[i] = new LongAdder();
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+                histograms[i][j] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Records an analysis that followed the given path and took the given time.
+     *
+     * @param path Path of the analysis.
+     * @param time Time of the analysis in nanoseconds.
+     */
+    public void record(AnalysisPath path, long time) {
+        int bucket = time <= 1 ? 0 : Math.min(BUCKET_COUNT - 1, 63 - Long.numberOfLeadingZeros(time));
+        counts[path.ordinal()].increment();
+        totalTimes[path.ordinal()].add(time);
+        histograms[path.ordinal()][bucket].increment();
+    }
+
+    /**
+     * Returns the number of analyses that followed the given path.
+     *
+     * @param path Path of the analysis.
+     * @return Number of analyses.
+     */
+    public long getCount(AnalysisPath path) {
+        return counts[path.ordinal()].sum();
+    }
+
+    /**
+     * Returns the total time of the analyses that followed the given path.
+     *
+     * @param path Path of the analysis.
+     * @return Total time in nanoseconds.
+     */
+    public long getTotalTime(AnalysisPath path) {
+        return totalTimes[path.ordinal()].sum();
+    }
+
+    /**
+     * Returns the mean time of the analyses that followed the given path.
+     *
+     * @param path Path of the analysis.
+     * @return Mean time in nanoseconds, 0 if there is no such analysis.
+     */
+    public double getMeanTime(AnalysisPath path) {
+        long count = getCount(path);
+        if (count == 0) {
+            return 0;
+        }
+        return getTotalTime(path) / (double) count;
+    }
+
+    /**
+     * Returns the histogram of the times of the analyses that followed the given path. The i'th bucket holds the number
+     * of analyses taking between 2^i and 2^(i+1) nanoseconds.
+     *
+     * @param path Path of the analysis.
+     * @return Histogram of the times.
+     */
+    public long[] getHistogram(AnalysisPath path) {
+        long[] histogram = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            histogram[i] = histograms[path.ordinal()][i].sum();
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the times of the analyses that followed the given path, which
+     * is the upper limit of the histogram bucket containing the percentile.
+     *
+     * @param path       Path of the analysis.
+     * @param percentile Percentile between 0 and 100.
+     * @return Upper bound of the percentile in nanoseconds, 0 if there is no such analysis.
+     */
+    public long getPercentile(AnalysisPath path, double percentile) {
+        long[] histogram = getHistogram(path);
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += histogram[i];
+            if (seen >= rank && histogram[i] > 0) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << BUCKET_COUNT;
+    }
+
+    /**
+     * Returns the number of lookups of the cache that found an analysis.
+     *
+     * @return Number of cache hits, 0 if there is no cache.
+     */
+    public long getCacheHitCount() {
+        return cache != null ? cache.hitCount() : 0;
+    }
+
+    /**
+     * Returns the number of lookups of the cache that did not find an analysis.
+     *
+     * @return Number of cache misses, 0 if there is no cache.
+     */
+    public long getCacheMissCount() {
+        return cache != null ? cache.missCount() : 0;
+    }
+
+    /**
+     * Returns the number of analyses evicted from the cache.
+     *
+     * @return Number of cache evictions, 0 if there is no cache.
+     */
+    public long getCacheEvictionCount() {
+        return cache != null ? cache.evictionCount() : 0;
+    }
+
+    /**
+     * Returns the number of analyses in the cache.
+     *
+     * @return Size of the cache, 0 if there is no cache.
+     */
+    public int getCacheSize() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    /**
+     * Returns the ratio of the cache hits to all cache lookups.
+     *
+     * @return Hit rate of the cache, 0 if the cache is not used.
+     */
+    public double getCacheHitRate() {
+        long hits = getCacheHitCount();
+        long lookups = hits + getCacheMissCount();
+        return lookups == 0 ? 0 : hits / (double) lookups;
+    }
+
+    /**
+     * Returns the number of surface forms in the cache of unanalyzable surface forms.
+     *
+     * @return Size of the negative cache, 0 if there is no cache.
+     */
+    public int getNegativeCacheSize() {
+        return negativeCache != null ? negativeCache.size() : 0;
+    }
+
+    /**
+     * Returns the number of surface forms evicted from the cache of unanalyzable surface forms.
+     *
+     * @return Number of negative cache evictions, 0 if there is no cache.
+     */
+    public long getNegativeCacheEvictionCount() {
+        return negativeCache != null ? negativeCache.evictionCount() : 0;
+    }
+
+    /**
+     * Resets all counters and histograms, including the hit, miss and eviction counters of the caches. The contents of
+     * the caches are not changed.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i].reset();
+            totalTimes[i].reset();
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+                histograms[i][j].reset();
+            }
+        }
+        if (cache != null) {
+            cache.resetStatistics();
+        }
+        if (negativeCache != null) {
+            negativeCache.resetStatistics();
+        }
+    }
+
+    /**
+     * Returns a report with one line for each analysis path, giving the count, mean time and the 50th and 99th
+     * percentiles in microseconds, followed by a line for the cache.
+     *
+     * @return Report of the statistics.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (AnalysisPath path : AnalysisPath.values()) {
+            result.append(String.format("%s count=%d mean=%.1fus p50<=%.1fus p99<=%.1fus%n", path, getCount(path),
+                    getMeanTime(path) / 1000.0, getPercentile(path, 50) / 1000.0, getPercentile(path, 99) / 1000.0));
+        }
+        result.append(String.format("CACHE hits=%d misses=%d hitRate=%.3f evictions=%d size=%d negativeSize=%d negativeEvictions=%d%n",
+                getCacheHitCount(), getCacheMissCount(), getCacheHitRate(), getCacheEvictionCount(), getCacheSize(),
+                getNegativeCacheSize(), getNegativeCacheEvictionCount()));
+        return result.toString();
+    }
+}
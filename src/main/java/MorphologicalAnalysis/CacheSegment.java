@@ -0,0 +1,164 @@
+package MorphologicalAnalysis;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+public class CacheSegment<K, V> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<>();
+    private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final FrequencySketch sketch;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor of CacheSegment class. New keys enter a small LRU window of one percent of the capacity. When the
+     * window is full, its least recently used key competes with the least recently used key of the main LRU region,
+     * and the one with the smaller estimated frequency is evicted. Therefore, keys seen only once can not push the
+     * frequently used keys out of the segment.
+     *
+     * @param capacity Maximum number of keys in the segment.
+     */
+    public CacheSegment(int capacity) {
+        windowCapacity = Math.max(1, capacity / 100);
+        mainCapacity = Math.max(0, capacity - windowCapacity);
+        sketch = new FrequencySketch(Math.min(capacity, 1024));
+    }
+
+    /**
+     * Returns the value of the key. The lookup itself does not lock; the frequency and the recency of the key are
+     * recorded only if the lock of the segment is free, so that concurrent readers never wait for each other.
+     *
+     * @param key  Key to search.
+     * @param hash Spread hash of the key.
+     * @return Value of the key if it exists, null otherwise.
+     */
+    public V get(K key, int hash) {
+        V value = map.get(key);
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(hash);
+                if (value != null) {
+                    if (window.get(key) == null) {
+                        main.get(key);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Checks if the key exists in the segment.
+     *
+     * @param key Key to search.
+     * @return True if the key exists, false otherwise.
+     */
+    public boolean contains(K key) {
+        return map.containsKey(key);
+    }
+
+    /**
+     * Adds the key with its value to the segment, evicting a key if the segment is full.
+     *
+     * @param key   Key to add.
+     * @param value Value of the key.
+     */
+    public void add(K key, V value) {
+        lock.lock();
+        try {
+            if (map.put(key, value) != null) {
+                return;
+            }
+            window.put(key, Boolean.TRUE);
+            int size = map.size();
+            if (size >= 512 && (size & (size - 1)) == 0) {
+                sketch.ensureCapacity(Math.min(2 * size, windowCapacity + mainCapacity));
+            }
+            if (window.size() > windowCapacity) {
+                K candidate = eldest(window);
+                window.remove(candidate);
+                if (main.size() < mainCapacity) {
+                    main.put(candidate, Boolean.TRUE);
+                } else {
+                    K victim = main.isEmpty() ? null : eldest(main);
+                    if (victim != null && sketch.frequency(spread(candidate.hashCode())) > sketch.frequency(spread(victim.hashCode()))) {
+                        main.remove(victim);
+                        map.remove(victim);
+                        main.put(candidate, Boolean.TRUE);
+                    } else {
+                        map.remove(candidate);
+                    }
+                    evictions.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the least recently used key of the given region.
+     *
+     * @param region Window or main region of the segment.
+     * @return Least recently used key.
+     */
+    private K eldest(LinkedHashMap<K, Boolean> region) {
+        Iterator<K> iterator = region.keySet().iterator();
+        return iterator.next();
+    }
+
+    /**
+     * Spreads the bits of the hash code, so that the keys with similar hash codes are distributed well.
+     *
+     * @param hashCode Hash code of a key.
+     * @return Spread hash.
+     */
+    public static int spread(int hashCode) {
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Calls the action for each key and value in the segment.
+     *
+     * @param action Action to call.
+     */
+    public void forEach(BiConsumer<K, V> action) {
+        map.forEach(action);
+    }
+
+    /**
+     * Returns the number of keys in the segment.
+     *
+     * @return Number of keys in the segment.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Returns the number of keys evicted from the segment.
+     *
+     * @return Number of evicted keys.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Resets the eviction counter of the segment.
+     */
+    public void resetStatistics() {
+        evictions.reset();
+    }
+}
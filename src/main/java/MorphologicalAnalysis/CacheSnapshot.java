@@ -0,0 +1,295 @@
+package MorphologicalAnalysis;
+
+import Dictionary.TxtDictionary;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CacheSnapshot {
+
+    private static final int MAGIC = 0x46534D43;
+    private static final int VERSION = 2;
+
+    /**
+     * The fingerprint method computes a 64-bit FNV-1a hash of the given string, continuing from the given hash.
+     *
+     * @param hash   Hash computed so far.
+     * @param string String to add to the hash.
+     * @return Hash after adding the string.
+     */
+    private static long fingerprint(long hash, String string) {
+        if (string == null) {
+            string = "\u0000";
+        }
+        for (int i = 0; i < string.length(); i++) {
+            hash ^= string.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= 0xff;
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+
+    /**
+     * Computes the version of the finite state machine, which is a hash of its states and transitions. A snapshot is
+     * only loaded by an analyzer whose finite state machine has the same version.
+     *
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @return Version of the finite state machine.
+     */
+    public static long fingerprint(FiniteStateMachine finiteStateMachine) {
+        long hash = 0xcbf29ce484222325L;
+        for (State state : finiteStateMachine.getStates()) {
+            hash = fingerprint(hash, state.getName() + " " + state.isStartState() + " " + state.isEndState() + " " + state.getPos());
+            for (Transition transition : finiteStateMachine.getTransitions(state)) {
+                hash = fingerprint(hash, transition.toState().getName());
+                hash = fingerprint(hash, transition.toString());
+                hash = fingerprint(hash, transition.with());
+                hash = fingerprint(hash, transition.toPos());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the version of the dictionary, which is a hash of its words together with their flags. A snapshot is
+     * only loaded by an analyzer whose dictionary has the same version.
+     *
+     * @param dictionary Dictionary of the analyzer.
+     * @return Version of the dictionary.
+     */
+    public static long fingerprint(TxtDictionary dictionary) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < dictionary.size(); i++) {
+            hash = fingerprint(hash, dictionary.getWord(i).toString());
+        }
+        return hash;
+    }
+
+    /**
+     * Writes the index of the string in the string table, adding the string to the table if it is not there. Null is
+     * written as -1.
+     *
+     * @param outputStream Output to write the string.
+     * @param string       String to write.
+     * @param strings      String table, mapping each string to its index.
+     * @throws IOException If the output can not be written.
+     */
+    static void writeString(DataOutputStream outputStream, String string, HashMap<String, Integer> strings) throws IOException {
+        if (string == null) {
+            outputStream.writeInt(-1);
+        } else {
+            Integer index = strings.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.put(string, index);
+            }
+            outputStream.writeInt(index);
+        }
+    }
+
+    /**
+     * Reads a string written by the writeString method.
+     *
+     * @param buffer  Buffer to read the string.
+     * @param strings String table.
+     * @return String read.
+     */
+    static String readString(ByteBuffer buffer, String[] strings) {
+        int index = buffer.getInt();
+        if (index < 0) {
+            return null;
+        }
+        return strings[index];
+    }
+
+    /**
+     * Writes the size of the list followed by its strings. A null list is written with size -1.
+     *
+     * @param outputStream Output to write the list.
+     * @param list         List to write.
+     * @param strings      String table, mapping each string to its index.
+     * @throws IOException If the output can not be written.
+     */
+    static void writeStringList(DataOutputStream outputStream, ArrayList<String> list, HashMap<String, Integer> strings) throws IOException {
+        if (list == null) {
+            outputStream.writeInt(-1);
+        } else {
+            outputStream.writeInt(list.size());
+            for (String string : list) {
+                writeString(outputStream, string, strings);
+            }
+        }
+    }
+
+    /**
+     * Reads a list written by the writeStringList method.
+     *
+     * @param buffer  Buffer to read the list.
+     * @param strings String table.
+     * @return List read.
+     */
+    static ArrayList<String> readStringList(ByteBuffer buffer, String[] strings) {
+        int size = buffer.getInt();
+        if (size < 0) {
+            return null;
+        }
+        ArrayList<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString(buffer, strings));
+        }
+        return list;
+    }
+
+    /**
+     * Writes the entries of the snapshot, each surface form followed by the number of its parses and the parses. A
+     * surface form of the negative cache has no parses.
+     *
+     * @param outputStream Output to write the entries.
+     * @param dictionary   Dictionary of the analyzer.
+     * @param surfaceForms Surface forms of the entries.
+     * @param parseLists   Parses of the entries, null for the surface forms of the negative cache.
+     * @param strings      String table, mapping each string to its index.
+     * @throws IOException If the output can not be written.
+     */
+    private static void writeEntries(DataOutputStream outputStream, TxtDictionary dictionary, ArrayList<String> surfaceForms,
+                                     ArrayList<FsmParseList> parseLists, HashMap<String, Integer> strings) throws IOException {
+        for (int i = 0; i < surfaceForms.size(); i++) {
+            writeString(outputStream, surfaceForms.get(i), strings);
+            FsmParseList fsmParseList = parseLists.get(i);
+            if (fsmParseList == null) {
+                outputStream.writeInt(0);
+            } else {
+                outputStream.writeInt(fsmParseList.size());
+                for (int j = 0; j < fsmParseList.size(); j++) {
+                    fsmParseList.getFsmParse(j).write(outputStream, dictionary, strings);
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves the contents of the caches to a file. The file starts with the versions of the finite state machine and the
+     * dictionary, followed by a table of the distinct strings in UTF-8, followed by each surface form and its parses,
+     * where the strings are written as their indexes in the table. The surface forms of the negative cache are written
+     * with no parses. Since the table comes before the entries, the entries are written twice: first to an output that
+     * discards them, only to build the table, and then to the file, so that the entries are never kept in memory.
+     *
+     * @param fileName           Name of the snapshot file.
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param dictionary         Dictionary of the analyzer.
+     * @param cache              Cache of the analyzer.
+     * @param negativeCache      Cache of the unanalyzable surface forms of the analyzer.
+     * @throws IOException If the file can not be written.
+     */
+    public static void save(String fileName, FiniteStateMachine finiteStateMachine, TxtDictionary dictionary,
+                            AnalysisCache<String, FsmParseList> cache, AnalysisCache<String, Boolean> negativeCache) throws IOException {
+        ArrayList<String> surfaceForms = new ArrayList<>();
+        ArrayList<FsmParseList> parseLists = new ArrayList<>();
+        cache.forEach((surfaceForm, fsmParseList) -> {
+            surfaceForms.add(surfaceForm);
+            parseLists.add(fsmParseList);
+        });
+        negativeCache.forEach((surfaceForm, exists) -> {
+            surfaceForms.add(surfaceForm);
+            parseLists.add(null);
+        });
+        HashMap<String, Integer> strings = new HashMap<>();
+        writeEntries(new DataOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }), dictionary, surfaceForms, parseLists, strings);
+        String[] table = new String[strings.size()];
+        for (Map.Entry<String, Integer> entry : strings.entrySet()) {
+            table[entry.getValue()] = entry.getKey();
+        }
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeLong(fingerprint(finiteStateMachine));
+            outputStream.writeLong(fingerprint(dictionary));
+            outputStream.writeInt(table.length);
+            for (String string : table) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                outputStream.writeInt(bytes.length);
+                outputStream.write(bytes);
+            }
+            outputStream.writeInt(surfaceForms.size());
+            writeEntries(outputStream, dictionary, surfaceForms, parseLists, strings);
+        }
+    }
+
+    /**
+     * Loads a snapshot saved by the save method into the caches. The file is memory mapped and read without copying it
+     * into the heap. If the file is not a snapshot, or its finite state machine or dictionary version is different
+     * from the analyzer's, nothing is loaded.
+     *
+     * @param fileName           Name of the snapshot file.
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param dictionary         Dictionary of the analyzer.
+     * @param cache              Cache of the analyzer.
+     * @param negativeCache      Cache of the unanalyzable surface forms of the analyzer.
+     * @return True if the snapshot is loaded, false otherwise.
+     */
+    public static boolean load(String fileName, FiniteStateMachine finiteStateMachine, TxtDictionary dictionary,
+                               AnalysisCache<String, FsmParseList> cache, AnalysisCache<String, Boolean> negativeCache) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return false;
+            }
+            if (buffer.getLong() != fingerprint(finiteStateMachine) || buffer.getLong() != fingerprint(dictionary)) {
+                return false;
+            }
+            int stringCount = buffer.getInt();
+            if (stringCount < 0 || stringCount > buffer.remaining() / 4) {
+                return false;
+            }
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    return false;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int entryCount = buffer.getInt();
+            ArrayList<String> surfaceForms = new ArrayList<>();
+            ArrayList<ArrayList<FsmParse>> parses = new ArrayList<>();
+            for (int i = 0; i < entryCount; i++) {
+                surfaceForms.add(readString(buffer, strings));
+                int parseCount = buffer.getInt();
+                ArrayList<FsmParse> fsmParses = new ArrayList<>();
+                for (int j = 0; j < parseCount; j++) {
+                    fsmParses.add(FsmParse.read(buffer, strings, finiteStateMachine, dictionary));
+                }
+                parses.add(fsmParses);
+            }
+            for (int i = 0; i < entryCount; i++) {
+                if (parses.get(i).isEmpty()) {
+                    negativeCache.add(surfaceForms.get(i), Boolean.TRUE);
+                } else {
+                    cache.add(surfaceForms.get(i), new FsmParseList(parses.get(i)));
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -4,15 +4,26 @@ import Util.FileUtils;
 import Xml.XmlDocument;
 import Xml.XmlElement;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Locale;
 
 /**
  * Created by olcay on 12/08/2018.
  */
 public class FiniteStateMachine {
     private final ArrayList<State> states;
-    private final HashMap<State, ArrayList<Transition>> transitions;
+    private final ArrayList<ArrayList<Transition>> transitions;
+    private final HashMap<String, State> stateNames;
+    private volatile Transition[][] transitionArrays;
+    private volatile int[] minimumSuffixLengths;
+    private volatile Transition[][] surfaceTransitionArrays;
+    private volatile ZeroClosure[] zeroClosures;
+    private static final Transition[] NO_TRANSITIONS = new Transition[0];
 
     /**
      * Constructor reads the finite state machine in the given input file. It has a NodeList which holds the states
@@ -39,7 +50,8 @@ public class FiniteStateMachine {
         XmlDocument doc;
         doc = new XmlDocument(FileUtils.getInputStream(fileName));
         doc.parse();
-        transitions = new HashMap<>();
+        transitions = new ArrayList<>();
+        stateNames = new HashMap<>();
         rootNode = doc.getFirstChild();
         stateNode = rootNode.getFirstChild();
         states = new ArrayList<>();
@@ -49,9 +61,9 @@ public class FiniteStateMachine {
             endState = stateNode.getAttributeValue("end").equalsIgnoreCase("yes");
             if (startState) {
                 originalPos = stateNode.getAttributeValue("originalpos");
-                states.add(new State(stateName, true, endState, originalPos));
+                addState(new State(stateName, true, endState, originalPos));
             } else {
-                states.add(new State(stateName, false, endState));
+                addState(new State(stateName, false, endState));
             }
             stateNode = stateNode.getNextSibling();
         }
@@ -111,6 +123,134 @@ public class FiniteStateMachine {
         }
     }
 
+    /**
+     * Another constructor which reads a finite state machine written by the write method. The states are read first,
+     * so that the target of each transition is found with its index instead of searching the state by its name.
+     *
+     * @param inputStream Input to read the finite state machine.
+     * @throws IOException If the input can not be read.
+     */
+    FiniteStateMachine(DataInputStream inputStream) throws IOException {
+        int stateCount = inputStream.readInt();
+        states = new ArrayList<>(stateCount);
+        transitions = new ArrayList<>(stateCount);
+        stateNames = new HashMap<>();
+        for (int i = 0; i < stateCount; i++) {
+            String name = inputStream.readUTF();
+            boolean startState = inputStream.readBoolean();
+            boolean endState = inputStream.readBoolean();
+            if (startState) {
+                addState(new State(name, true, endState, readNullableString(inputStream)));
+            } else {
+                addState(new State(name, false, endState));
+            }
+        }
+        for (State state : states) {
+            int transitionCount = inputStream.readInt();
+            for (int i = 0; i < transitionCount; i++) {
+                State toState = states.get(inputStream.readInt());
+                String with = readNullableString(inputStream);
+                String withName = readNullableString(inputStream);
+                String toPos = readNullableString(inputStream);
+                if (toPos == null) {
+                    addTransition(state, toState, with, withName);
+                } else {
+                    addTransition(state, toState, with, withName, toPos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the state to the finite state machine. The state gets the next index, its transitions are kept in the list
+     * with the same index, and it can be found both with its name and its lowercased name. If more than one state has
+     * the same lowercased name, the first one is found with both, as the states are searched ignoring case.
+     *
+     * @param state State to add.
+     */
+    private void addState(State state) {
+        state.setIndex(states.size());
+        states.add(state);
+        transitions.add(new ArrayList<>());
+        String lowerCaseName = state.getName().toLowerCase(Locale.ENGLISH);
+        stateNames.putIfAbsent(lowerCaseName, state);
+        stateNames.putIfAbsent(state.getName(), stateNames.get(lowerCaseName));
+        transitionArrays = null;
+        minimumSuffixLengths = null;
+        surfaceTransitionArrays = null;
+        zeroClosures = null;
+    }
+
+    /**
+     * Checks if the state is one of the states of this finite state machine.
+     *
+     * @param state State to check.
+     * @return True if the state is added to this finite state machine, false otherwise.
+     */
+    private boolean contains(State state) {
+        int index = state.getIndex();
+        return index >= 0 && index < states.size() && states.get(index) == state;
+    }
+
+    /**
+     * Reads a string written by the writeNullableString method.
+     *
+     * @param inputStream Input to read the string.
+     * @return String read, null if a null string is written.
+     * @throws IOException If the input can not be read.
+     */
+    static String readNullableString(DataInputStream inputStream) throws IOException {
+        if (inputStream.readBoolean()) {
+            return inputStream.readUTF();
+        }
+        return null;
+    }
+
+    /**
+     * Writes a string, which can be null, preceded by a flag showing whether it is null.
+     *
+     * @param outputStream Output to write the string.
+     * @param string       String to write.
+     * @throws IOException If the output can not be written.
+     */
+    static void writeNullableString(DataOutputStream outputStream, String string) throws IOException {
+        outputStream.writeBoolean(string != null);
+        if (string != null) {
+            outputStream.writeUTF(string);
+        }
+    }
+
+    /**
+     * Writes the states and then the transitions of each state, where the target state of a transition is written as
+     * its index in the states list.
+     *
+     * @param outputStream Output to write the finite state machine.
+     * @throws IOException If the output can not be written.
+     */
+    void write(DataOutputStream outputStream) throws IOException {
+        HashMap<State, Integer> stateIndexes = new HashMap<>();
+        outputStream.writeInt(states.size());
+        for (State state : states) {
+            stateIndexes.put(state, stateIndexes.size());
+            outputStream.writeUTF(state.getName());
+            outputStream.writeBoolean(state.isStartState());
+            outputStream.writeBoolean(state.isEndState());
+            if (state.isStartState()) {
+                writeNullableString(outputStream, state.getPos());
+            }
+        }
+        for (State state : states) {
+            ArrayList<Transition> stateTransitions = getTransitions(state);
+            outputStream.writeInt(stateTransitions.size());
+            for (Transition transition : stateTransitions) {
+                outputStream.writeInt(stateIndexes.get(transition.toState()));
+                writeNullableString(outputStream, transition.toString());
+                writeNullableString(outputStream, transition.with());
+                writeNullableString(outputStream, transition.toPos());
+            }
+        }
+    }
+
     /**
      * The isValidTransition loops through states ArrayList and checks transitions between states. If the actual transition
      * equals to the given transition input, method returns true otherwise returns false.
@@ -119,8 +259,8 @@ public class FiniteStateMachine {
      * @return true when the actual transition equals to the transition input, false otherwise.
      */
     public boolean isValidTransition(String transition) {
-        for (State state : transitions.keySet()) {
-            for (Transition transition1 : transitions.get(state)) {
+        for (ArrayList<Transition> stateTransitions : transitions) {
+            for (Transition transition1 : stateTransitions) {
                 if (transition1.toString() != null && transition1.toString().equals(transition)) {
                     return true;
                 }
@@ -138,19 +278,19 @@ public class FiniteStateMachine {
     }
 
     /**
-     * The getState method is used to loop through the states {@link ArrayList} and return the state whose name equal
-     * to the given input name.
+     * The getState method is used to return the state whose name equal to the given input name ignoring case. The
+     * states are kept in a map with their names and lowercased names, so the name is lowercased only if it is not
+     * written exactly as the name of the state.
      *
      * @param name is used to compare with the state's actual name.
      * @return state if found any, null otherwise.
      */
     public State getState(String name) {
-        for (State state : states) {
-            if (state.getName().equalsIgnoreCase(name)) {
-                return state;
-            }
+        State state = stateNames.get(name);
+        if (state == null) {
+            state = stateNames.get(name.toLowerCase(Locale.ENGLISH));
         }
-        return null;
+        return state;
     }
 
     /**
@@ -163,15 +303,14 @@ public class FiniteStateMachine {
      * @param withName String input.
      */
     public void addTransition(State fromState, State toState, String with, String withName) {
-        ArrayList<Transition> transitionList;
-        Transition newTransition = new Transition(toState, with, withName);
-        if (transitions.containsKey(fromState)){
-            transitionList = transitions.get(fromState);
-        } else {
-            transitionList = new ArrayList<>();
+        if (!contains(fromState)) {
+            addState(fromState);
         }
-        transitionList.add(newTransition);
-        transitions.put(fromState, transitionList);
+        transitions.get(fromState.getIndex()).add(new Transition(toState, with, withName));
+        transitionArrays = null;
+        minimumSuffixLengths = null;
+        surfaceTransitionArrays = null;
+        zeroClosures = null;
     }
 
     /**
@@ -185,15 +324,14 @@ public class FiniteStateMachine {
      * @param toPos    String input.
      */
     public void addTransition(State fromState, State toState, String with, String withName, String toPos) {
-        ArrayList<Transition> transitionList;
-        Transition newTransition = new Transition(toState, with, withName, toPos);
-        if (transitions.containsKey(fromState)){
-            transitionList = transitions.get(fromState);
-        } else {
-            transitionList = new ArrayList<>();
+        if (!contains(fromState)) {
+            addState(fromState);
         }
-        transitionList.add(newTransition);
-        transitions.put(fromState, transitionList);
+        transitions.get(fromState.getIndex()).add(new Transition(toState, with, withName, toPos));
+        transitionArrays = null;
+        minimumSuffixLengths = null;
+        surfaceTransitionArrays = null;
+        zeroClosures = null;
     }
 
     /**
@@ -203,11 +341,168 @@ public class FiniteStateMachine {
      * @return transitions at given state.
      */
     public ArrayList<Transition> getTransitions(State state) {
-        if (transitions.containsKey(state)){
-            return transitions.get(state);
+        if (contains(state)){
+            return transitions.get(state.getIndex());
         } else {
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Returns the transitions at the given state as an array. The arrays of all states are built once, after the last
+     * transition is added, and shared by all callers, so that the search loops over the transitions without creating
+     * iterators or lists. The returned array should not be modified.
+     *
+     * @param state State input.
+     * @return transitions at given state, an empty array if the state is not in the finite state machine.
+     */
+    public Transition[] getTransitionArray(State state) {
+        Transition[][] arrays = transitionArrays;
+        if (arrays == null) {
+            arrays = new Transition[transitions.size()][];
+            for (int i = 0; i < arrays.length; i++) {
+                arrays[i] = transitions.get(i).toArray(NO_TRANSITIONS);
+            }
+            transitionArrays = arrays;
+        }
+        if (contains(state)) {
+            return arrays[state.getIndex()];
+        }
+        return NO_TRANSITIONS;
+    }
+
+    /**
+     * Returns the transitions at the given state that add characters to the stem, that is, all transitions except the
+     * zero transitions, in their original order. The zero transitions are reached through {@link #getZeroClosure}.
+     * The returned array should not be modified.
+     *
+     * @param state State input.
+     * @return transitions at given state except the zero transitions.
+     */
+    public Transition[] getSurfaceTransitionArray(State state) {
+        Transition[][] arrays = surfaceTransitionArrays;
+        if (arrays == null) {
+            arrays = new Transition[transitions.size()][];
+            for (int i = 0; i < arrays.length; i++) {
+                ArrayList<Transition> surfaceTransitions = new ArrayList<>();
+                for (Transition transition : transitions.get(i)) {
+                    if (!transition.isZero()) {
+                        surfaceTransitions.add(transition);
+                    }
+                }
+                arrays[i] = surfaceTransitions.toArray(NO_TRANSITIONS);
+            }
+            surfaceTransitionArrays = arrays;
+        }
+        if (contains(state)) {
+            return arrays[state.getIndex()];
+        }
+        return NO_TRANSITIONS;
+    }
+
+    /**
+     * Returns the closure of the given state under the zero transitions, which holds every path of zero transitions
+     * leaving the state, so that a search can add all partial parses with the same stem at once. The closures of all
+     * states are built once. A path does not visit a state twice.
+     *
+     * @param state State input.
+     * @return Closure of the state under the zero transitions.
+     */
+    public ZeroClosure getZeroClosure(State state) {
+        ZeroClosure[] closures = zeroClosures;
+        if (closures == null) {
+            closures = new ZeroClosure[states.size()];
+            for (int i = 0; i < closures.length; i++) {
+                closures[i] = zeroClosure(states.get(i));
+            }
+            zeroClosures = closures;
+        }
+        if (contains(state)) {
+            return closures[state.getIndex()];
+        }
+        return new ZeroClosure(NO_TRANSITIONS, new int[0]);
+    }
+
+    /**
+     * Builds the closure of a state under the zero transitions by a breadth first search over the paths of zero
+     * transitions, so that each item comes after its parent.
+     *
+     * @param state State of the closure.
+     * @return Closure of the state under the zero transitions.
+     */
+    private ZeroClosure zeroClosure(State state) {
+        ArrayList<Transition> closureTransitions = new ArrayList<>();
+        ArrayList<Integer> parents = new ArrayList<>();
+        ArrayList<State> closureStates = new ArrayList<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(-1);
+        while (!queue.isEmpty()) {
+            int parent = queue.remove();
+            State fromState = parent == -1 ? state : closureStates.get(parent);
+            if (!contains(fromState)) {
+                continue;
+            }
+            for (Transition transition : transitions.get(fromState.getIndex())) {
+                if (transition.isZero() && transition.toState() != null) {
+                    boolean visited = transition.toState() == state;
+                    for (int current = parent; current != -1 && !visited; current = parents.get(current)) {
+                        visited = closureStates.get(current) == transition.toState();
+                    }
+                    if (!visited) {
+                        closureTransitions.add(transition);
+                        parents.add(parent);
+                        closureStates.add(transition.toState());
+                        queue.add(closureTransitions.size() - 1);
+                    }
+                }
+            }
+        }
+        int[] parentArray = new int[parents.size()];
+        for (int i = 0; i < parentArray.length; i++) {
+            parentArray[i] = parents.get(i);
+        }
+        return new ZeroClosure(closureTransitions.toArray(NO_TRANSITIONS), parentArray);
+    }
+
+    /**
+     * Returns a lower bound of the number of characters that must still be added to a stem in the given state before
+     * an end state is reached, provided that the stem is longer than the root by at least two characters. The bounds
+     * are computed for all states at once as shortest paths to the end states, where the length of a transition is its
+     * minimumLength. Letters that may follow a state are not used for pruning, since stem alternations such as
+     * softening, vowel drops and the special case of Hyor change characters that are already in the stem.
+     *
+     * @param state State input.
+     * @return Minimum number of characters to reach an end state, Integer.MAX_VALUE / 2 if no end state is reachable.
+     */
+    public int minimumSuffixLength(State state) {
+        int[] lengths = minimumSuffixLengths;
+        if (lengths == null) {
+            lengths = new int[states.size()];
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = states.get(i).isEndState() ? 0 : Integer.MAX_VALUE / 2;
+            }
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int i = 0; i < lengths.length; i++) {
+                    for (Transition transition : transitions.get(i)) {
+                        State toState = transition.toState();
+                        if (toState != null) {
+                            int length = transition.minimumLength() + (contains(toState) ? lengths[toState.getIndex()] : (toState.isEndState() ? 0 : Integer.MAX_VALUE / 2));
+                            if (length < lengths[i]) {
+                                lengths[i] = length;
+                                changed = true;
+                            }
+                        }
+                    }
+                }
+            }
+            minimumSuffixLengths = lengths;
+        }
+        if (contains(state)) {
+            return lengths[state.getIndex()];
+        }
+        return state.isEndState() ? 0 : Integer.MAX_VALUE / 2;
+    }
+
 }
@@ -0,0 +1,104 @@
+package MorphologicalAnalysis;
+
+public class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private long[] table;
+    private int counterMask;
+    private int sampleSize;
+    private int additions;
+
+    /**
+     * Constructor of FrequencySketch class. The sketch is a count-min sketch with sixteen 4-bit counters per key,
+     * packed sixteen counters to a long, and each key is counted in four of them. It estimates how many times a key is
+     * seen recently; when the number of additions reaches ten times the maximum size, all counters are halved so that
+     * old frequencies fade away.
+     *
+     * @param maximumSize Expected number of distinct keys whose frequencies are compared.
+     */
+    public FrequencySketch(int maximumSize) {
+        ensureCapacity(maximumSize);
+    }
+
+    /**
+     * Resizes the sketch for the given number of distinct keys. If the sketch grows, the counters are cleared.
+     *
+     * @param maximumSize Expected number of distinct keys whose frequencies are compared.
+     */
+    public void ensureCapacity(int maximumSize) {
+        int counterCount = 64;
+        while (counterCount < 16 * maximumSize && counterCount < (1 << 30)) {
+            counterCount <<= 1;
+        }
+        if (table == null || counterCount > 16 * table.length) {
+            table = new long[counterCount / 16];
+            counterMask = counterCount - 1;
+            sampleSize = 10 * Math.max(maximumSize, 1);
+            additions = 0;
+        }
+    }
+
+    /**
+     * Returns the index of the counter of the given hash in the given row.
+     *
+     * @param hash Hash of the key.
+     * @param row  Row of the sketch.
+     * @return Index of the counter.
+     */
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & counterMask;
+    }
+
+    /**
+     * Returns the value of the counter with the given index.
+     *
+     * @param index Index of the counter.
+     * @return Value of the counter, between 0 and 15.
+     */
+    private int counter(int index) {
+        return (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & 15L);
+    }
+
+    /**
+     * Increments the counters of the given hash, unless they are saturated. If the number of additions reaches the
+     * sample size, all counters are halved.
+     *
+     * @param hash Hash of the key.
+     */
+    public void increment(int hash) {
+        boolean added = false;
+        for (int row = 0; row < 4; row++) {
+            int index = indexOf(hash, row);
+            if (counter(index) < 15) {
+                table[index >>> 4] += 1L << ((index & 15) << 2);
+                added = true;
+            }
+        }
+        if (added) {
+            additions++;
+            if (additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated frequency of the given hash, which is the minimum of its counters.
+     *
+     * @param hash Hash of the key.
+     * @return Estimated frequency, between 0 and 15.
+     */
+    public int frequency(int hash) {
+        int frequency = 15;
+        for (int row = 0; row < 4; row++) {
+            frequency = Math.min(frequency, counter(indexOf(hash, row)));
+        }
+        return frequency;
+    }
+}
@@ -1,26 +1,62 @@
 package MorphologicalAnalysis;
 
+import Corpus.Corpus;
 import Corpus.Sentence;
-import DataStructure.Cache.LRUCache;
 import Dictionary.Trie.Trie;
 import Dictionary.*;
 import Util.FileUtils;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 public class FsmMorphologicalAnalyzer {
 
     private final Trie dictionaryTrie;
+    private final RootPrefixTrie rootPrefixTrie;
+    private final ConcurrentHashMap<TxtWord, RootSeeds> rootSeeds = new ConcurrentHashMap<>();
+    private final AnalysisCache<SuffixTail.Key, SuffixTail> suffixTails = new AnalysisCache<>(MAXIMUM_SUFFIX_TAIL_COUNT);
     private Trie suffixTrie;
+    private final ArrayList<String> suffixes;
     private HashMap<String, String> parsedSurfaceForms = null;
+    private FullFormLexicon lexicon = null;
+    private SurfaceFormFilter surfaceFormFilter = null;
     private HashMap<String, String> pronunciations;
     private final FiniteStateMachine finiteStateMachine;
     private static final int MAX_DISTANCE = 2;
+    private static final int MAXIMUM_SUFFIX_TAIL_COUNT = 1 << 16;
+    private static final int MAXIMUM_NEGATIVE_CACHE_SIZE = 1 << 20;
+    private static final String[] NUMBERS = {"bir", "iki", "üç", "dört", "beş", "altı", "yedi", "sekiz", "dokuz",
+            "on", "yirmi", "otuz", "kırk", "elli", "altmış", "yetmiş", "seksen", "doksan",
+            "yüz", "bin", "milyon", "milyar", "trilyon", "katrilyon"};
     private final TxtDictionary dictionary;
-    private final LRUCache<String, FsmParseList> cache;
-    private final HashMap<String, Pattern> mostUsedPatterns = new HashMap<>();
+    private final AnalysisCache<String, FsmParseList> cache;
+    private final AnalysisCache<String, Boolean> negativeCache;
+    private final AnalyzerStatistics statistics;
+
+    /**
+     * Initial parses of a dictionary root and of its variants, kept as the roots and start states in the order
+     * initializeParseListFromRoot creates them. The seeds starting from ProperRoot are used only for proper nouns.
+     */
+    private static class RootSeeds {
+        final TxtWord root;
+        final TxtWord[] roots;
+        final State[] states;
+        final boolean[] properOnly;
+
+        RootSeeds(TxtWord root, ArrayList<FsmParse> initialParses) {
+            this.root = root;
+            roots = new TxtWord[initialParses.size()];
+            states = new State[initialParses.size()];
+            properOnly = new boolean[initialParses.size()];
+            for (int i = 0; i < initialParses.size(); i++) {
+                roots[i] = (TxtWord) initialParses.get(i).getWord();
+                states[i] = initialParses.get(i).getStartState();
+                properOnly[i] = states[i].getName().equals("ProperRoot");
+            }
+        }
+    }
 
     /**
      * First no-arg constructor of FsmMorphologicalAnalyzer class. It generates a new TxtDictionary type dictionary from
@@ -34,7 +70,7 @@ public class FsmMorphologicalAnalyzer {
      * Another constructor of FsmMorphologicalAnalyzer class. It generates a new TxtDictionary type dictionary from
      * turkish_dictionary.txt with given input cacheSize and by using turkish_finite_state_machine.xml file.
      *
-     * @param cacheSize the size of the LRUCache.
+     * @param cacheSize the size of the cache.
      */
     public FsmMorphologicalAnalyzer(int cacheSize) {
         this("turkish_finite_state_machine.xml", new TxtDictionary(), cacheSize);
@@ -67,19 +103,53 @@ public class FsmMorphologicalAnalyzer {
      *
      * @param fileName   the file to read the finite state machine.
      * @param dictionary the dictionary file that will be used to generate dictionaryTrie.
-     * @param cacheSize  the size of the LRUCache.
+     * @param cacheSize  the size of the cache.
      */
     public FsmMorphologicalAnalyzer(String fileName, TxtDictionary dictionary, int cacheSize) {
+        this(new FiniteStateMachine(fileName), readSuffixes(), FileUtils.readHashMap("pronunciations.txt"), dictionary, cacheSize);
+    }
+
+    /**
+     * Another constructor of FsmMorphologicalAnalyzer class. It takes the finite state machine, the suffixes and the
+     * pronunciations from an analyzer image written by saveImage, so that no xml or text resource is parsed. The
+     * dictionary is given separately.
+     *
+     * @param image      the analyzer image.
+     * @param dictionary the dictionary file that will be used to generate dictionaryTrie.
+     * @param cacheSize  the size of the cache.
+     */
+    public FsmMorphologicalAnalyzer(AnalyzerImage image, TxtDictionary dictionary, int cacheSize) {
+        this(image.getFiniteStateMachine(), image.getSuffixes(), image.getPronunciations(), dictionary, cacheSize);
+    }
+
+    /**
+     * Constructor which all other constructors call. It prepares the suffix trie and the dictionary trie, and creates
+     * the caches if cacheSize is positive. The cache of the surface forms without analyses only holds markers, and is
+     * bounded separately by at most MAXIMUM_NEGATIVE_CACHE_SIZE keys.
+     *
+     * @param finiteStateMachine the finite state machine.
+     * @param suffixes           the suffixes of the suffix trie.
+     * @param pronunciations     foreign words and their pronunciations.
+     * @param dictionary         the dictionary file that will be used to generate dictionaryTrie.
+     * @param cacheSize          the size of the cache.
+     */
+    private FsmMorphologicalAnalyzer(FiniteStateMachine finiteStateMachine, ArrayList<String> suffixes, HashMap<String, String> pronunciations,
+                                     TxtDictionary dictionary, int cacheSize) {
         this.dictionary = dictionary;
-        finiteStateMachine = new FiniteStateMachine(fileName);
-        prepareSuffixTrie();
+        this.finiteStateMachine = finiteStateMachine;
+        this.suffixes = suffixes;
+        prepareSuffixTrie(suffixes);
         dictionaryTrie = dictionary.prepareTrie();
+        rootPrefixTrie = new RootPrefixTrie(dictionary, dictionaryTrie);
         if (cacheSize > 0){
-            cache = new LRUCache<>(cacheSize);
+            cache = new AnalysisCache<>(cacheSize);
+            negativeCache = new AnalysisCache<>(Math.min(cacheSize, MAXIMUM_NEGATIVE_CACHE_SIZE));
         } else {
             cache = null;
+            negativeCache = null;
         }
-        addPronunciations("pronunciations.txt");
+        statistics = new AnalyzerStatistics(cache, negativeCache);
+        this.pronunciations = pronunciations;
     }
 
     /**
@@ -117,19 +187,33 @@ public class FsmMorphologicalAnalyzer {
     }
 
     /**
-     * Constructs the suffix trie from the input file suffixes.txt. suffixes.txt contains the most frequent 6000
-     * suffixes that a verb or a noun can take. The suffix trie is a trie that stores these suffixes in reverse form,
-     * which can be then used to match a given word for its possible suffix content.
+     * Reads the suffixes from the input file suffixes.txt. suffixes.txt contains the most frequent 6000 suffixes that a
+     * verb or a noun can take.
+     *
+     * @return Suffixes in the file.
      */
-    private void prepareSuffixTrie(){
-        suffixTrie = new Trie();
+    private static ArrayList<String> readSuffixes(){
+        ArrayList<String> suffixes = new ArrayList<>();
         Scanner inputFile = new Scanner(FileUtils.getInputStream("suffixes.txt"));
         while (inputFile.hasNext()){
-            String suffix = inputFile.next();
+            suffixes.add(inputFile.next());
+        }
+        inputFile.close();
+        return suffixes;
+    }
+
+    /**
+     * Constructs the suffix trie from the given suffixes. The suffix trie is a trie that stores these suffixes in
+     * reverse form, which can be then used to match a given word for its possible suffix content.
+     *
+     * @param suffixes Suffixes to add to the suffix trie.
+     */
+    private void prepareSuffixTrie(ArrayList<String> suffixes){
+        suffixTrie = new Trie();
+        for (String suffix : suffixes){
             String reverseSuffix = reverseString(suffix);
             suffixTrie.addWord(reverseSuffix, new Word(reverseSuffix));
         }
-        inputFile.close();
     }
 
     /**
@@ -232,6 +316,179 @@ public class FsmMorphologicalAnalyzer {
         return dictionary;
     }
 
+    /**
+     * Returns the statistics of the analyzer, which hold the number and the times of the analyses for each analysis
+     * path and the hit, miss and eviction counts of the cache.
+     *
+     * @return Statistics of the analyzer.
+     */
+    public AnalyzerStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * The saveCache method writes the contents of the cache, including the surface forms without analyses, to a binary
+     * snapshot file tagged with the versions of the finite state machine and the dictionary.
+     *
+     * @param fileName Name of the snapshot file.
+     * @throws IOException If the file can not be written.
+     */
+    public void saveCache(String fileName) throws IOException {
+        if (cache != null) {
+            CacheSnapshot.save(fileName, finiteStateMachine, dictionary, cache, negativeCache);
+        }
+    }
+
+    /**
+     * The loadCache method fills the cache from a snapshot file written by saveCache. The snapshot is rejected if it
+     * was written by an analyzer with a different finite state machine or dictionary.
+     *
+     * @param fileName Name of the snapshot file.
+     * @return True if the snapshot is loaded, false otherwise.
+     */
+    public boolean loadCache(String fileName) {
+        if (cache == null) {
+            return false;
+        }
+        return CacheSnapshot.load(fileName, finiteStateMachine, dictionary, cache, negativeCache);
+    }
+
+    /**
+     * The saveImage method writes the finite state machine, the suffixes of the suffix trie and the pronunciations to
+     * a binary analyzer image. An analyzer constructed from the image with the same dictionary behaves the same as this
+     * analyzer, but starts without parsing the xml and text resources.
+     *
+     * @param fileName Name of the image file.
+     * @throws IOException If the file can not be written.
+     */
+    public void saveImage(String fileName) throws IOException {
+        AnalyzerImage.save(fileName, finiteStateMachine, suffixes, pronunciations);
+    }
+
+    /**
+     * The saveLexicon method precompiles the analyses of the surface forms that can be generated from the dictionary
+     * roots into a full-form lexicon file. For each root, the surface forms obtained by adding at most maxSuffixLength
+     * characters to the root are generated with generateAllParses. Each distinct surface form is then analyzed with the
+     * full search, so that the lexicon holds exactly the parses the analyzer would find itself. Surface forms that are
+     * special tokens, that have no analyses, or whose analyses as a lowercase word are not the analyses as a proper
+     * noun without the ProperRoot parses are left out; they are analyzed with the search as before.
+     *
+     * @param fileName        Name of the lexicon file.
+     * @param maxSuffixLength Maximum number of characters added to a root.
+     * @throws IOException If the file can not be written.
+     */
+    public void saveLexicon(String fileName, int maxSuffixLength) throws IOException {
+        ArrayList<TxtWord> roots = new ArrayList<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            roots.add((TxtWord) dictionary.getWord(i));
+        }
+        saveLexicon(fileName, roots, maxSuffixLength);
+    }
+
+    /**
+     * The saveLexicon method precompiles the analyses of the surface forms that can be generated from the given roots
+     * into a full-form lexicon file. See saveLexicon(String, int).
+     *
+     * @param fileName        Name of the lexicon file.
+     * @param roots           Roots whose surface forms are added to the lexicon.
+     * @param maxSuffixLength Maximum number of characters added to a root.
+     * @throws IOException If the file can not be written.
+     */
+    public void saveLexicon(String fileName, ArrayList<TxtWord> roots, int maxSuffixLength) throws IOException {
+        TreeSet<String> surfaceForms = new TreeSet<>();
+        for (TxtWord root : roots) {
+            for (FsmParse fsmParse : generateAllParses(root, root.getName().length() + maxSuffixLength)) {
+                surfaceForms.add(fsmParse.getSurfaceForm());
+            }
+        }
+        TreeMap<String, ArrayList<FsmParse>> entries = new TreeMap<>();
+        for (String surfaceForm : surfaceForms) {
+            if (surfaceForm.isEmpty() || !surfaceForm.equals(TokenClassifier.toLowerCase(surfaceForm)) || specialTokenAnalysis(surfaceForm) != null) {
+                continue;
+            }
+            ArrayList<FsmParse> properParses = parseWord(initializeParseListFromSurfaceForm(surfaceForm, true, null), surfaceForm);
+            if (properParses.isEmpty()) {
+                continue;
+            }
+            ArrayList<FsmParse> parses = parseWord(initializeParseListFromSurfaceForm(surfaceForm, false, null), surfaceForm);
+            ArrayList<String> transitionLists = new ArrayList<>();
+            for (FsmParse fsmParse : properParses) {
+                if (!fsmParse.getStartState().getName().equals("ProperRoot")) {
+                    transitionLists.add(fsmParse.transitionList());
+                }
+            }
+            boolean consistent = transitionLists.size() == parses.size();
+            for (int i = 0; consistent && i < parses.size(); i++) {
+                consistent = transitionLists.get(i).equals(parses.get(i).transitionList());
+            }
+            if (consistent) {
+                entries.put(surfaceForm, properParses);
+            }
+        }
+        FullFormLexicon.save(fileName, finiteStateMachine, dictionary, entries);
+    }
+
+    /**
+     * The loadLexicon method memory maps a full-form lexicon file written by saveLexicon. After loading, a surface form
+     * that is not in the cache is first looked up in the lexicon, and searched in the finite state machine only if it
+     * is not found. The lexicon is rejected if it was written by an analyzer with a different finite state machine or
+     * dictionary.
+     *
+     * @param fileName Name of the lexicon file.
+     * @return True if the lexicon is loaded, false otherwise.
+     */
+    public boolean loadLexicon(String fileName) {
+        FullFormLexicon loaded = FullFormLexicon.load(fileName, finiteStateMachine, dictionary);
+        if (loaded == null) {
+            return false;
+        }
+        lexicon = loaded;
+        return true;
+    }
+
+    /**
+     * The saveSurfaceFormFilter method writes a filter of the surface forms with at most maximumLength characters that
+     * can be generated from the dictionary roots. The surface forms are generated with generateAllParses from every
+     * root, which stops extending a parse once it is longer than maximumLength, so that every surface form of at most
+     * maximumLength characters for which morphologicalAnalysisExists returns true is in the filter. The filter is sized
+     * so that a surface form not in it passes the filter with the given probability.
+     *
+     * @param fileName          Name of the filter file.
+     * @param maximumLength     Length of the longest surface form added to the filter.
+     * @param falsePositiveRate Target probability of a false positive, between 0 and 1.
+     * @throws IOException If the file can not be written.
+     */
+    public void saveSurfaceFormFilter(String fileName, int maximumLength, double falsePositiveRate) throws IOException {
+        HashSet<String> surfaceForms = new HashSet<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            TxtWord root = (TxtWord) dictionary.getWord(i);
+            for (FsmParse fsmParse : generateAllParses(root, maximumLength)) {
+                surfaceForms.add(fsmParse.getSurfaceForm());
+            }
+        }
+        SurfaceFormFilter filter = new SurfaceFormFilter(surfaceForms.size(), falsePositiveRate, maximumLength);
+        filter.addAll(surfaceForms);
+        filter.save(fileName, finiteStateMachine, dictionary);
+    }
+
+    /**
+     * The loadSurfaceFormFilter method loads a filter written by saveSurfaceFormFilter. After loading,
+     * morphologicalAnalysisExists returns false without searching the finite state machine for a surface form that is
+     * not longer than the maximum length of the filter and is not in the filter. The filter is rejected if it was
+     * written by an analyzer with a different finite state machine or dictionary.
+     *
+     * @param fileName Name of the filter file.
+     * @return True if the filter is loaded, false otherwise.
+     */
+    public boolean loadSurfaceFormFilter(String fileName) {
+        SurfaceFormFilter loaded = SurfaceFormFilter.load(fileName, finiteStateMachine, dictionary);
+        if (loaded == null) {
+            return false;
+        }
+        surfaceFormFilter = loaded;
+        return true;
+    }
+
     /**
      * The getFiniteStateMachine method is used to get FiniteStateMachine.
      *
@@ -629,111 +886,297 @@ public class FsmMorphologicalAnalyzer {
     }
 
     /**
-     * The initializeParseListFromSurfaceForm method is used to create an {@link ArrayList} which consists of initial fsm parsings. First,
-     * it calls getWordsWithPrefix methods by using input String surfaceForm and generates a {@link HashSet}. Then, traverses
-     * this HashSet and uses each word as a root and calls initializeParseListFromRoot method with this root and ArrayList.
+     * The initializeParseListFromDictionaryRoot method does the same as the initializeParseListFromRoot method for a root
+     * of the dictionary. The variants and start states of a dictionary root depend only on the root, therefore they are
+     * found once with the initializeParseListFromRoot method and kept as the seeds of the root. Each later call only
+     * creates the initial parses from the seeds.
+     *
+     * @param parseList ArrayList to initialize.
+     * @param root      root of the dictionary.
+     * @param isProper  is used to check a word is proper or not.
+     */
+    private void initializeParseListFromDictionaryRoot(ArrayList<FsmParse> parseList, TxtWord root, boolean isProper) {
+        RootSeeds seeds = rootSeeds.get(root);
+        if (seeds == null || seeds.root != root) {
+            ArrayList<FsmParse> initialParses = new ArrayList<>();
+            initializeParseListFromRoot(initialParses, root, true);
+            seeds = new RootSeeds(root, initialParses);
+            rootSeeds.putIfAbsent(root, seeds);
+        }
+        for (int i = 0; i < seeds.roots.length; i++) {
+            if (isProper || !seeds.properOnly[i]) {
+                parseList.add(new FsmParse(seeds.roots[i], seeds.states[i]));
+            }
+        }
+    }
+
+    /**
+     * The initializeParseListFromSurfaceForm method is used to create an {@link ArrayList} which consists of initial fsm parsings. It
+     * visits the roots whose keys are prefixes of the surfaceForm in the {@link RootPrefixTrie}, without collecting them
+     * in a set, and calls initializeParseListFromRoot method with each root and ArrayList.
      * <p>
+     * Roots created on the fly for the current call are kept in newRoots instead of being added to the shared
+     * dictionaryTrie. A dictionary word that has a modified copy in newRoots is shadowed by that copy.
      *
-     * @param surfaceForm the String used to generate a HashSet of words.
+     * @param surfaceForm the String whose prefixes are searched for roots.
      * @param isProper    is used to check a word is proper or not.
+     * @param newRoots    roots created for the current call, keyed by their names. Can be null.
      * @return initialFsmParse ArrayList.
      */
-    private ArrayList<FsmParse> initializeParseListFromSurfaceForm(String surfaceForm, boolean isProper) {
-        TxtWord root;
-        ArrayList<FsmParse> initialFsmParse;
-        initialFsmParse = new ArrayList<>();
+    private ArrayList<FsmParse> initializeParseListFromSurfaceForm(String surfaceForm, boolean isProper, HashMap<String, TxtWord> newRoots) {
+        ArrayList<FsmParse> initialFsmParse = new ArrayList<>();
         if (surfaceForm.isEmpty()) {
             return initialFsmParse;
         }
-        HashSet<Word> words = dictionaryTrie.getWordsWithPrefix(surfaceForm);
-        for (Word word : words) {
-            root = (TxtWord) word;
-            initializeParseListFromRoot(initialFsmParse, root, isProper);
+        HashSet<String> shadowed = newRoots != null ? new HashSet<>() : null;
+        rootPrefixTrie.forEachRoot(surfaceForm, root -> {
+            if (newRoots != null && newRoots.containsKey(root.getName()) && dictionary.getWord(root.getName()) == root) {
+                shadowed.add(root.getName());
+                initializeParseListFromRoot(initialFsmParse, newRoots.get(root.getName()), isProper);
+            } else {
+                initializeParseListFromDictionaryRoot(initialFsmParse, root, isProper);
+            }
+            return true;
+        });
+        if (newRoots != null) {
+            for (TxtWord newRoot : newRoots.values()) {
+                if (!shadowed.contains(newRoot.getName()) && surfaceForm.startsWith(newRoot.getName())) {
+                    initializeParseListFromRoot(initialFsmParse, newRoot, isProper);
+                }
+            }
         }
         return initialFsmParse;
     }
 
     /**
-     * The addNewParsesFromCurrentParse method initially gets the final suffixes from input currentFsmParse called as currentState,
+     * The suffixCannotFit method checks if a stem, after a transition adding at least the given number of characters,
+     * can not reach an end state without exceeding the given length. The minimum number of characters still needed in
+     * each state is precomputed by the finite state machine. The check is only done for stems longer than the root by
+     * at least two characters, since only the root form may lose a character through a vowel drop during suffixation.
+     *
+     * @param stemLength     Length of the current stem.
+     * @param addedLength    Minimum number of characters added by the transition, 0 if the stem is already extended.
+     * @param root           Root of the parse.
+     * @param state          State reached by the transition.
+     * @param maxLength      Maximum length of the surface form.
+     * @return True if no surface form of at most maxLength characters can be reached, false otherwise.
+     */
+    private boolean suffixCannotFit(int stemLength, int addedLength, TxtWord root, State state, int maxLength) {
+        return stemLength >= root.getName().length() + 2 && stemLength + addedLength + finiteStateMachine.minimumSuffixLength(state) > maxLength;
+    }
+
+    /**
+     * The addNewParsesFromCurrentParse method initially gets the final state of the input currentParse called as currentState,
      * and by using the currentState information it gets the new analysis. Then loops through each currentState's transition.
-     * If the currentTransition is possible, it makes the transition.
+     * If the currentTransition is possible, it makes the transition. The new partial parses share the suffixes of
+     * currentParse instead of copying them. The zero transitions are skipped in the loop and made by the addZeroClosure
+     * method, unless currentParse is itself reached by a zero transition.
      *
-     * @param currentFsmParse FsmParse type input.
-     * @param fsmParse        an ArrayList of FsmParse.
+     * @param currentParse    Partial parse to extend.
+     * @param fsmParse        Queue of partial parses, which merges the partial parses in the same configuration.
      * @param maxLength     Maximum length of the parse.
      * @param root            TxtWord used to make transition.
      */
-    private void addNewParsesFromCurrentParse(FsmParse currentFsmParse, Queue<FsmParse> fsmParse, int maxLength, TxtWord root) {
-        State currentState = currentFsmParse.getFinalSuffix();
-        String currentSurfaceForm = currentFsmParse.getSurfaceForm();
-        for (Transition currentTransition : finiteStateMachine.getTransitions(currentState)) {
-            if (currentTransition.transitionPossible(currentFsmParse) && (currentSurfaceForm.compareTo(root.getName()) != 0 || (currentSurfaceForm.compareTo(root.getName()) == 0 && currentTransition.transitionPossible(root, currentState)))) {
-                String tmp = currentTransition.makeTransition(root, currentSurfaceForm, currentFsmParse.getStartState());
-                if (tmp.length() <= maxLength) {
-                    FsmParse newFsmParse = currentFsmParse.clone();
-                    newFsmParse.addSuffix(currentTransition.toState(), tmp, currentTransition.with(), currentTransition.toString(), currentTransition.toPos());
-                    newFsmParse.setAgreement(currentTransition.with());
-                    fsmParse.add(newFsmParse);
+    private void addNewParsesFromCurrentParse(PartialParse currentParse, PartialParseQueue fsmParse, int maxLength, TxtWord root) {
+        State currentState = currentParse.getState();
+        String currentSurfaceForm = currentParse.getSurfaceForm();
+        for (Transition currentTransition : finiteStateMachine.getSurfaceTransitionArray(currentState)) {
+            if (suffixCannotFit(currentSurfaceForm.length(), currentTransition.minimumLength(), root, currentTransition.toState(), maxLength)) {
+                continue;
+            }
+            if (currentTransition.transitionPossible(root, currentSurfaceForm) && (currentSurfaceForm.compareTo(root.getName()) != 0 || (currentSurfaceForm.compareTo(root.getName()) == 0 && currentTransition.transitionPossible(root, currentState)))) {
+                String tmp = currentTransition.makeTransition(root, currentSurfaceForm, currentParse.getStartState(), currentParse.getLastVowel());
+                if (tmp.length() <= maxLength && !suffixCannotFit(tmp.length(), 0, root, currentTransition.toState(), maxLength)) {
+                    fsmParse.add(new PartialParse(currentParse, currentTransition, tmp));
                 }
             }
         }
+        if (!currentParse.isInZeroClosure() && currentSurfaceForm.length() <= maxLength) {
+            addZeroClosure(currentParse, fsmParse, maxLength, root);
+        }
     }
 
     /**
-     * The addNewParsesFromCurrentParse method initially gets the final suffixes from input currentFsmParse called as currentState,
+     * The addNewParsesFromCurrentParse method initially gets the final state of the input currentParse called as currentState,
      * and by using the currentState information it gets the currentSurfaceForm. Then loops through each currentState's transition.
-     * If the currentTransition is possible, it makes the transition
+     * If the currentTransition is possible, it makes the transition. The new partial parses share the suffixes of
+     * currentParse instead of copying them. The zero transitions are skipped in the loop and made by the addZeroClosure
+     * method, unless currentParse is itself reached by a zero transition.
      *
-     * @param currentFsmParse FsmParse type input.
-     * @param fsmParse        an ArrayList of FsmParse.
+     * @param currentParse    Partial parse to extend.
+     * @param fsmParse        Queue of partial parses, which merges the partial parses in the same configuration.
      * @param surfaceForm     String to use during transition.
      * @param root            TxtWord used to make transition.
      */
-    private void addNewParsesFromCurrentParse(FsmParse currentFsmParse, Queue<FsmParse> fsmParse, String surfaceForm, TxtWord root) {
-        State currentState = currentFsmParse.getFinalSuffix();
-        String currentSurfaceForm = currentFsmParse.getSurfaceForm();
-        for (Transition currentTransition : finiteStateMachine.getTransitions(currentState)) {
-            if (currentTransition.transitionPossible(currentFsmParse.getSurfaceForm(), surfaceForm) && currentTransition.transitionPossible(currentFsmParse) && (currentSurfaceForm.compareTo(root.getName()) != 0 || (currentSurfaceForm.compareTo(root.getName()) == 0 && currentTransition.transitionPossible(root, currentState)))) {
-                String tmp = currentTransition.makeTransition(root, currentSurfaceForm, currentFsmParse.getStartState());
+    private void addNewParsesFromCurrentParse(PartialParse currentParse, PartialParseQueue fsmParse, String surfaceForm, TxtWord root) {
+        State currentState = currentParse.getState();
+        String currentSurfaceForm = currentParse.getSurfaceForm();
+        for (Transition currentTransition : finiteStateMachine.getSurfaceTransitionArray(currentState)) {
+            if (suffixCannotFit(currentSurfaceForm.length(), currentTransition.minimumLength(), root, currentTransition.toState(), surfaceForm.length())) {
+                continue;
+            }
+            if (currentTransition.transitionPossible(currentSurfaceForm, surfaceForm) && currentTransition.transitionPossible(root, currentSurfaceForm) && (currentSurfaceForm.compareTo(root.getName()) != 0 || (currentSurfaceForm.compareTo(root.getName()) == 0 && currentTransition.transitionPossible(root, currentState)))) {
+                String tmp = currentTransition.makeTransition(root, currentSurfaceForm, currentParse.getStartState(), currentParse.getLastVowel());
+                if (suffixCannotFit(tmp.length(), 0, root, currentTransition.toState(), surfaceForm.length())) {
+                    continue;
+                }
                 if ((tmp.length() < surfaceForm.length() && isPossibleSubstring(tmp, surfaceForm, root)) || (tmp.length() == surfaceForm.length() && (root.lastIdropsDuringSuffixation() || (tmp.equalsIgnoreCase(surfaceForm))))) {
-                    FsmParse newFsmParse = currentFsmParse.clone();
-                    newFsmParse.addSuffix(currentTransition.toState(), tmp, currentTransition.with(), currentTransition.toString(), currentTransition.toPos());
-                    newFsmParse.setAgreement(currentTransition.with());
-                    fsmParse.add(newFsmParse);
+                    fsmParse.add(new PartialParse(currentParse, currentTransition, tmp));
                 }
             }
         }
+        if (!currentParse.isInZeroClosure() && ((currentSurfaceForm.length() < surfaceForm.length() && isPossibleSubstring(currentSurfaceForm, surfaceForm, root)) || (currentSurfaceForm.length() == surfaceForm.length() && (root.lastIdropsDuringSuffixation() || (currentSurfaceForm.equalsIgnoreCase(surfaceForm)))))) {
+            addZeroClosure(currentParse, fsmParse, surfaceForm.length(), root);
+        }
+    }
+
+    /**
+     * The addZeroClosure method adds the partial parses reached from currentParse by the paths of zero transitions in
+     * the zero closure of its state. A zero transition does not change the surface form, therefore the conditions on
+     * the surface form are checked once by the caller for all of them, and the partial parses of the closure are added
+     * at once instead of being extended one by one. A path is not followed further after a partial parse that is in
+     * the same configuration as an earlier one, since the zero transitions of that configuration are made from the
+     * earlier one.
+     *
+     * @param currentParse    Partial parse to extend, which is not reached by a zero transition.
+     * @param fsmParse        Queue of partial parses, which merges the partial parses in the same configuration.
+     * @param maxLength       Maximum length of the parse.
+     * @param root            TxtWord used to make transition.
+     */
+    private void addZeroClosure(PartialParse currentParse, PartialParseQueue fsmParse, int maxLength, TxtWord root) {
+        String currentSurfaceForm = currentParse.getSurfaceForm();
+        boolean rootForm = currentSurfaceForm.compareTo(root.getName()) == 0;
+        ZeroClosure zeroClosure = finiteStateMachine.getZeroClosure(currentParse.getState());
+        PartialParse[] closureParses = new PartialParse[zeroClosure.size()];
+        for (int i = 0; i < zeroClosure.size(); i++) {
+            PartialParse parent = zeroClosure.getParent(i) == -1 ? currentParse : closureParses[zeroClosure.getParent(i)];
+            Transition currentTransition = zeroClosure.getTransition(i);
+            if (parent != null && !suffixCannotFit(currentSurfaceForm.length(), 0, root, currentTransition.toState(), maxLength) && currentTransition.transitionPossible(root, currentSurfaceForm) && (!rootForm || currentTransition.transitionPossible(root, parent.getState()))) {
+                PartialParse closureParse = new PartialParse(parent, currentTransition, currentSurfaceForm);
+                if (fsmParse.add(closureParse)) {
+                    closureParses[i] = closureParse;
+                }
+            }
+        }
+    }
+
+    /**
+     * The initialQueue method creates the queue of the search with a partial parse for each initial parse. Initial
+     * parses in the same configuration are merged like the other partial parses.
+     *
+     * @param fsmParse an ArrayList of initial FsmParse.
+     * @return Queue of partial parses.
+     */
+    private PartialParseQueue initialQueue(ArrayList<FsmParse> fsmParse) {
+        PartialParseQueue parseQueue = new PartialParseQueue();
+        for (FsmParse initialParse : fsmParse) {
+            parseQueue.add(new PartialParse(initialParse));
+        }
+        return parseQueue;
     }
 
     /**
-     * The parseExists method is used to check the existence of the parse.
+     * The isNewParse method checks if an accepted partial parse has the same surface form and transition list as a
+     * previously accepted one. The accepted parses are grouped by the hash of their surface forms and transition lists,
+     * and the transition lists are built and compared only if the hash of the new parse is already in the groups. If
+     * the parse is new, it is added to its group.
+     *
+     * @param acceptedParses Previously accepted partial parses grouped by their hashes.
+     * @param currentParse   Accepted partial parse.
+     * @param hash           Hash of the surface form and the transition list of the accepted partial parse.
+     * @return True if no previously accepted parse has the same surface form and transition list, false otherwise.
+     */
+    private boolean isNewParse(HashMap<Integer, ArrayList<PartialParse>> acceptedParses, PartialParse currentParse, int hash) {
+        ArrayList<PartialParse> sameHash = acceptedParses.get(hash);
+        if (sameHash == null) {
+            sameHash = new ArrayList<>(1);
+            acceptedParses.put(hash, sameHash);
+        } else {
+            String currentTransitionList = currentParse.transitionList();
+            for (PartialParse acceptedParse : sameHash) {
+                if (acceptedParse.getSurfaceForm().equals(currentParse.getSurfaceForm()) && acceptedParse.transitionList().equals(currentTransitionList)) {
+                    return false;
+                }
+            }
+        }
+        sameHash.add(currentParse);
+        return true;
+    }
+
+    /**
+     * The suffixTail method returns the paths from the given partial parse to the surface form, if they can be shared
+     * with the other partial parses having the same key. The paths are searched the first time a key is seen, and are
+     * kept in a bounded cache, so that the long inflectional tails common to many words are searched only once.
+     *
+     * @param currentParse Partial parse to extend.
+     * @param surfaceForm  Surface form to be analyzed.
+     * @return Suffix tail of the partial parse, null if it can not be shared.
+     */
+    private SuffixTail suffixTail(PartialParse currentParse, String surfaceForm) {
+        String stem = currentParse.getSurfaceForm();
+        TxtWord root = currentParse.getRoot();
+        if (stem.length() <= 3 || stem.length() <= root.getName().length() + 1 || currentParse.getLastVowel() == 0 || !surfaceForm.regionMatches(0, stem, 0, stem.length() - 2)) {
+            return null;
+        }
+        int rootFlags = SuffixTail.rootFlags(root);
+        if (rootFlags < 0) {
+            return null;
+        }
+        SuffixTail.Key key = new SuffixTail.Key(currentParse.getState(), currentParse.isInZeroClosure(), rootFlags, stem, surfaceForm);
+        SuffixTail suffixTail = suffixTails.get(key);
+        if (suffixTail == null) {
+            PartialParse start = new PartialParse(currentParse);
+            PartialParseQueue parseQueue = new PartialParseQueue();
+            ArrayList<PartialParse> acceptedConfigurations = new ArrayList<>();
+            parseQueue.add(start);
+            while (!parseQueue.isEmpty()) {
+                PartialParse partialParse = parseQueue.remove();
+                if (partialParse != start && partialParse.getState().isEndState() && partialParse.getSurfaceForm().compareTo(surfaceForm) == 0) {
+                    acceptedConfigurations.add(partialParse);
+                }
+                addNewParsesFromCurrentParse(partialParse, parseQueue, surfaceForm, root);
+            }
+            suffixTail = new SuffixTail(acceptedConfigurations, stem.length() - 2);
+            suffixTails.add(key, suffixTail);
+        }
+        return suffixTail;
+    }
+
+    /**
+     * The parseExists method is used to check the existence of the parse. A partial parse whose suffix tail can be
+     * shared is not extended; the parse exists if its suffix tail has a path.
      *
      * @param fsmParse    an ArrayList of FsmParse
      * @param surfaceForm String to use during transition.
      * @return true when the currentState is end state and input surfaceForm id equal to currentSurfaceForm, otherwise false.
      */
     private boolean parseExists(ArrayList<FsmParse> fsmParse, String surfaceForm) {
-        FsmParse currentFsmParse;
-        TxtWord root;
-        State currentState;
-        String currentSurfaceForm;
-        LinkedList<FsmParse> parseQueue = new LinkedList<>(fsmParse);
+        PartialParse currentParse;
+        PartialParseQueue parseQueue = initialQueue(fsmParse);
         while (!parseQueue.isEmpty()) {
-            currentFsmParse = parseQueue.remove();
-            root = (TxtWord) currentFsmParse.getWord();
-            currentState = currentFsmParse.getFinalSuffix();
-            currentSurfaceForm = currentFsmParse.getSurfaceForm();
-            if (currentState.isEndState() && currentSurfaceForm.compareTo(surfaceForm) == 0) {
+            currentParse = parseQueue.remove();
+            if (currentParse.getState().isEndState() && currentParse.getSurfaceForm().compareTo(surfaceForm) == 0) {
                 return true;
             }
-            addNewParsesFromCurrentParse(currentFsmParse, parseQueue, surfaceForm, root);
+            SuffixTail suffixTail = suffixTail(currentParse, surfaceForm);
+            if (suffixTail == null) {
+                addNewParsesFromCurrentParse(currentParse, parseQueue, surfaceForm, currentParse.getRoot());
+            } else {
+                if (!suffixTail.isEmpty()) {
+                    return true;
+                }
+            }
         }
         return false;
     }
 
     /**
      * The parseWord method is used to parse a given fsmParse. It simply adds new parses to the current parse by
-     * using addNewParsesFromCurrentParse method.
+     * using addNewParsesFromCurrentParse method. The search works on partial parses sharing their common suffixes. A
+     * partial parse reaching the same state, surface form, root and start state as an earlier one is not extended
+     * again, but kept as an alternative of the earlier one, since both have the same continuations. The paths of the
+     * accepted partial parses, including their alternatives, are enumerated after the search, and an {@link FsmParse}
+     * is built only for them.
      *
      * @param fsmParse    an ArrayList of FsmParse
      * @param maxLength maximum length of the surfaceform.
@@ -741,35 +1184,39 @@ public class FsmMorphologicalAnalyzer {
      */
     private ArrayList<FsmParse> parseWord(ArrayList<FsmParse> fsmParse, int maxLength) {
         ArrayList<FsmParse> result;
-        ArrayList<String> resultTransitionList = new ArrayList<>();
+        HashMap<Integer, ArrayList<PartialParse>> acceptedParses = new HashMap<>();
+        ArrayList<PartialParse> acceptedConfigurations = new ArrayList<>();
+        PartialParse currentParse;
         FsmParse currentFsmParse;
-        TxtWord root;
-        State currentState;
-        String currentSurfaceForm;
-        String currentTransitionList;
-        LinkedList<FsmParse> parseQueue = new LinkedList<>(fsmParse);
+        PartialParseQueue parseQueue = initialQueue(fsmParse);
         result = new ArrayList<>();
         while (!parseQueue.isEmpty()) {
-            currentFsmParse = parseQueue.remove();
-            root = (TxtWord) currentFsmParse.getWord();
-            currentState = currentFsmParse.getFinalSuffix();
-            currentSurfaceForm = currentFsmParse.getSurfaceForm();
-            if (currentState.isEndState() && currentSurfaceForm.length() <= maxLength) {
-                currentTransitionList = currentSurfaceForm + " " + currentFsmParse.transitionList();
-                if (!resultTransitionList.contains(currentTransitionList)) {
+            currentParse = parseQueue.remove();
+            if (currentParse.getState().isEndState() && currentParse.getSurfaceForm().length() <= maxLength) {
+                acceptedConfigurations.add(currentParse);
+            }
+            addNewParsesFromCurrentParse(currentParse, parseQueue, maxLength, currentParse.getRoot());
+        }
+        for (PartialParse acceptedConfiguration : acceptedConfigurations) {
+            for (PartialParse path : acceptedConfiguration.paths()) {
+                if (isNewParse(acceptedParses, path, 31 * path.getSurfaceForm().hashCode() + path.transitionListHash())) {
+                    currentFsmParse = path.toFsmParse();
                     result.add(currentFsmParse);
                     currentFsmParse.constructInflectionalGroups();
-                    resultTransitionList.add(currentTransitionList);
                 }
             }
-            addNewParsesFromCurrentParse(currentFsmParse, parseQueue, maxLength, root);
         }
         return result;
     }
 
     /**
      * The parseWord method is used to parse a given fsmParse. It simply adds new parses to the current parse by
-     * using addNewParsesFromCurrentParse method.
+     * using addNewParsesFromCurrentParse method. The search works on partial parses sharing their common suffixes. A
+     * partial parse reaching the same state, surface form, root and start state as an earlier one is not extended
+     * again, but kept as an alternative of the earlier one, since both have the same continuations. The paths of the
+     * accepted partial parses, including their alternatives, are enumerated after the search, and an {@link FsmParse}
+     * is built only for them. A partial parse whose suffix tail can be shared is not extended either; the paths of its
+     * suffix tail are added to it instead.
      *
      * @param fsmParse    an ArrayList of FsmParse
      * @param surfaceForm String to use during transition.
@@ -777,28 +1224,32 @@ public class FsmMorphologicalAnalyzer {
      */
     private ArrayList<FsmParse> parseWord(ArrayList<FsmParse> fsmParse, String surfaceForm) {
         ArrayList<FsmParse> result;
-        ArrayList<String> resultTransitionList = new ArrayList<>();
+        HashMap<Integer, ArrayList<PartialParse>> acceptedParses = new HashMap<>();
+        ArrayList<PartialParse> acceptedConfigurations = new ArrayList<>();
+        PartialParse currentParse;
         FsmParse currentFsmParse;
-        TxtWord root;
-        State currentState;
-        String currentSurfaceForm;
-        String currentTransitionList;
-        LinkedList<FsmParse> parseQueue = new LinkedList<>(fsmParse);
+        PartialParseQueue parseQueue = initialQueue(fsmParse);
         result = new ArrayList<>();
         while (!parseQueue.isEmpty()) {
-            currentFsmParse = parseQueue.remove();
-            root = (TxtWord) currentFsmParse.getWord();
-            currentState = currentFsmParse.getFinalSuffix();
-            currentSurfaceForm = currentFsmParse.getSurfaceForm();
-            if (currentState.isEndState() && currentSurfaceForm.compareTo(surfaceForm) == 0) {
-                currentTransitionList = currentFsmParse.transitionList();
-                if (!resultTransitionList.contains(currentTransitionList)) {
+            currentParse = parseQueue.remove();
+            if (currentParse.getState().isEndState() && currentParse.getSurfaceForm().compareTo(surfaceForm) == 0) {
+                acceptedConfigurations.add(currentParse);
+            }
+            SuffixTail suffixTail = suffixTail(currentParse, surfaceForm);
+            if (suffixTail == null) {
+                addNewParsesFromCurrentParse(currentParse, parseQueue, surfaceForm, currentParse.getRoot());
+            } else {
+                suffixTail.addPaths(currentParse, surfaceForm, acceptedConfigurations);
+            }
+        }
+        for (PartialParse acceptedConfiguration : acceptedConfigurations) {
+            for (PartialParse path : acceptedConfiguration.paths()) {
+                if (isNewParse(acceptedParses, path, path.transitionListHash())) {
+                    currentFsmParse = path.toFsmParse();
                     result.add(currentFsmParse);
                     currentFsmParse.constructInflectionalGroups();
-                    resultTransitionList.add(currentTransitionList);
                 }
             }
-            addNewParsesFromCurrentParse(currentFsmParse, parseQueue, surfaceForm, root);
         }
         return result;
     }
@@ -965,8 +1416,11 @@ public class FsmMorphologicalAnalyzer {
 
     /**
      * The analysisExists method checks several cases. If the given surfaceForm is a punctuation or double then it
-     * returns true. If it is not a root word, then it initializes the parse list and returns the parseExists method with
-     * this newly initialized list and surfaceForm.
+     * returns true. If a root word is given, then it initializes the parse list and returns the parseExists method
+     * with this newly initialized list and surfaceForm. Otherwise, if a surface form filter is loaded and the
+     * surfaceForm is certainly not in it, it returns false without searching, since the filter only holds the surface
+     * forms of the dictionary roots. If not, the roots of the surfaceForm are searched one by one, starting from the
+     * longest, and the search stops at the first root with an analysis.
      *
      * @param rootWord    TxtWord root.
      * @param surfaceForm String input.
@@ -978,16 +1432,25 @@ public class FsmMorphologicalAnalyzer {
         if (Word.isPunctuation(surfaceForm)) {
             return true;
         }
-        if (isDouble(surfaceForm)) {
+        if (TokenClassifier.classify(surfaceForm) == TokenType.REAL) {
             return true;
         }
         if (rootWord != null) {
             initialFsmParse = new ArrayList<>();
             initializeParseListFromRoot(initialFsmParse, rootWord, isProper);
-        } else {
-            initialFsmParse = initializeParseListFromSurfaceForm(surfaceForm, isProper);
+            return parseExists(initialFsmParse, surfaceForm);
+        }
+        if (surfaceFormFilter != null && !surfaceFormFilter.mightContain(surfaceForm)) {
+            return false;
         }
-        return parseExists(initialFsmParse, surfaceForm);
+        if (surfaceForm.isEmpty()) {
+            return false;
+        }
+        return !rootPrefixTrie.forEachRoot(surfaceForm, root -> {
+            ArrayList<FsmParse> rootFsmParse = new ArrayList<>();
+            initializeParseListFromDictionaryRoot(rootFsmParse, root, isProper);
+            return !parseExists(rootFsmParse, surfaceForm);
+        });
     }
 
     /**
@@ -998,9 +1461,40 @@ public class FsmMorphologicalAnalyzer {
      *
      * @param surfaceForm String to analyse.
      * @param isProper    is used to indicate the proper words.
+     * @param newRoots    roots created for the current call, keyed by their names. Can be null.
      * @return ArrayList type initialFsmParse which holds the analyses.
      */
-    private ArrayList<FsmParse> analysis(String surfaceForm, boolean isProper) {
+    private ArrayList<FsmParse> analysis(String surfaceForm, boolean isProper, HashMap<String, TxtWord> newRoots) {
+        ArrayList<FsmParse> initialFsmParse = specialTokenAnalysis(surfaceForm);
+        if (initialFsmParse != null) {
+            return initialFsmParse;
+        }
+        initialFsmParse = initializeParseListFromSurfaceForm(surfaceForm, isProper, newRoots);
+        return parseWord(initialFsmParse, surfaceForm);
+    }
+
+    /**
+     * The specialTokenAnalysis method checks if the surfaceForm is a punctuation, number, date, fraction, percent,
+     * time, range, hashtag or mail. If it is, the analysis of the token is returned without searching the finite state
+     * machine.
+     *
+     * @param surfaceForm String to analyse.
+     * @return ArrayList type initialFsmParse which holds the analyses, null if the surfaceForm is not a special token.
+     */
+    private ArrayList<FsmParse> specialTokenAnalysis(String surfaceForm) {
+        return specialTokenAnalysis(surfaceForm, TokenClassifier.classify(surfaceForm));
+    }
+
+    /**
+     * The specialTokenAnalysis method checks if the surfaceForm is a punctuation or a written number, and otherwise
+     * uses the type of the token found by the {@link TokenClassifier} to return the analysis of a date, fraction,
+     * percent, time, range, hashtag, mail or number.
+     *
+     * @param surfaceForm String to analyse.
+     * @param tokenType   Type of the surfaceForm.
+     * @return ArrayList type initialFsmParse which holds the analyses, null if the surfaceForm is not a special token.
+     */
+    private ArrayList<FsmParse> specialTokenAnalysis(String surfaceForm, TokenType tokenType) {
         ArrayList<FsmParse> initialFsmParse;
         FsmParse fsmParse;
         if (Word.isPunctuation(surfaceForm) && !surfaceForm.equals("%")) {
@@ -1017,7 +1511,7 @@ public class FsmMorphologicalAnalyzer {
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (patternMatches("\\d+/\\d+", surfaceForm)) {
+        if (tokenType == TokenType.FRACTION) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(surfaceForm, new State(("FractionRoot"), true, true));
             fsmParse.constructInflectionalGroups();
@@ -1027,96 +1521,77 @@ public class FsmMorphologicalAnalyzer {
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (isDate(surfaceForm)) {
+        if (tokenType == TokenType.DATE) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(surfaceForm, new State(("DateRoot"), true, true));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (patternMatches("\\d+\\\\/\\d+", surfaceForm)) {
+        if (tokenType == TokenType.ESCAPED_FRACTION) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(surfaceForm, new State(("FractionRoot"), true, true));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (surfaceForm.equals("%") || isPercent(surfaceForm)) {
+        if (surfaceForm.equals("%") || tokenType == TokenType.PERCENT) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(surfaceForm, new State(("PercentRoot"), true, true));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (isTime(surfaceForm)) {
+        if (tokenType == TokenType.TIME) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(surfaceForm, new State(("TimeRoot"), true, true));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (isRange(surfaceForm)) {
+        if (tokenType == TokenType.RANGE) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(surfaceForm, new State(("RangeRoot"), true, true));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (surfaceForm.startsWith("#")) {
+        if (tokenType == TokenType.HASHTAG) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(surfaceForm, new State(("Hashtag"), true, true));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (surfaceForm.contains("@")) {
+        if (tokenType == TokenType.EMAIL) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(surfaceForm, new State(("Email"), true, true));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (surfaceForm.endsWith(".") && isInteger(surfaceForm.substring(0, surfaceForm.length() - 1))) {
+        if (tokenType == TokenType.ORDINAL) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(Integer.parseInt(surfaceForm.substring(0, surfaceForm.length() - 1)), finiteStateMachine.getState("OrdinalRoot"));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (isInteger(surfaceForm)) {
+        if (tokenType == TokenType.INTEGER) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(Integer.parseInt(surfaceForm), finiteStateMachine.getState("CardinalRoot"));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        if (isDouble(surfaceForm)) {
+        if (tokenType == TokenType.REAL) {
             initialFsmParse = new ArrayList<>(1);
             fsmParse = new FsmParse(Double.parseDouble(surfaceForm), finiteStateMachine.getState("RealRoot"));
             fsmParse.constructInflectionalGroups();
             initialFsmParse.add(fsmParse);
             return initialFsmParse;
         }
-        initialFsmParse = initializeParseListFromSurfaceForm(surfaceForm, isProper);
-        return parseWord(initialFsmParse, surfaceForm);
-    }
-
-    /**
-     * This method uses cache idea to speed up pattern matching in Fsm. mostUsedPatterns stores the compiled forms of
-     * the previously used patterns. When Fsm tries to match a string to a pattern, first we check if it exists in
-     * mostUsedPatterns. If it exists, we directly use the compiled pattern to match the string. Otherwise, new pattern
-     * is compiled and put in the mostUsedPatterns.
-     * @param expr Pattern to check
-     * @param value String to match the pattern
-     * @return True if the string matches the pattern, false otherwise.
-     */
-    private boolean patternMatches(String expr, String value){
-        Pattern p = mostUsedPatterns.get(expr);
-        if (p == null){
-            p = Pattern.compile(expr);
-            mostUsedPatterns.put(expr, p);
-        }
-        return p.matcher(value).matches();
+        return null;
     }
 
     /**
@@ -1143,13 +1618,13 @@ public class FsmMorphologicalAnalyzer {
         if (surfaceForm == null || surfaceForm.isEmpty()) {
             return false;
         }
-        return patternMatches(".*[0-9].*", surfaceForm) && patternMatches(".*[a-zA-ZçöğüşıÇÖĞÜŞİ].*", surfaceForm);
+        return TokenClassifier.isCode(surfaceForm);
     }
 
     /**
-     * Identifies a possible new root word for a given surface form. It also adds the new root form to the dictionary
-     * for further usage. The method first searches the suffix trie for the reverse string of the surface form. This
-     * way, it can identify if the word has a suffix that is in the most frequently used suffix list. Since a word can
+     * Identifies a possible new root word for a given surface form. The new root forms are not added to the dictionary,
+     * so that the analyzer can be shared between threads. The method first searches the suffix trie for the reverse
+     * string of the surface form. This way, it can identify if the word has a suffix that is in the most frequently used suffix list. Since a word can
      * have multiple possible suffixes, the method identifies the longest suffix and returns the substring of the
      * surface form tht does not contain the suffix. Let say the word is 'googlelaştırdık', it will identify 'tık' as
      * a suffix and will return 'googlelaştır' as a possible root form. Another example will be 'homelesslerimizle', it
@@ -1174,7 +1649,6 @@ public class FsmMorphologicalAnalyzer {
                 newWord.addFlag("CL_FIIL");
             }
             candidateList.add(newWord);
-            dictionaryTrie.addWord(candidateWord, newWord);
         }
         return candidateList;
     }
@@ -1197,6 +1671,7 @@ public class FsmMorphologicalAnalyzer {
         }
         currentParse = morphologicalAnalysis(surfaceForm);
         if (currentParse.size() == 0) {
+            long startTime = System.nanoTime();
             fsmParse = new ArrayList<>(1);
             if (isProperNoun(surfaceForm)) {
                 fsmParse.add(new FsmParse(surfaceForm, finiteStateMachine.getState("ProperRoot")));
@@ -1212,7 +1687,9 @@ public class FsmMorphologicalAnalyzer {
                 }
             }
             fsmParse.add(new FsmParse(surfaceForm, finiteStateMachine.getState("NominalRoot")));
-            return new FsmParseList(parseWord(fsmParse, surfaceForm));
+            currentParse = new FsmParseList(parseWord(fsmParse, surfaceForm));
+            statistics.record(AnalysisPath.ROBUST_FALLBACK, System.nanoTime() - startTime);
+            return currentParse;
         } else {
             return currentParse;
         }
@@ -1263,102 +1740,150 @@ public class FsmMorphologicalAnalyzer {
     }
 
     /**
-     * The isInteger method compares input surfaceForm with regex [-+]?\d+ and returns the result.
-     * Supports positive integer checks only.
+     * The analyzeInParallel method collects the words of the given sentences into one array, replacing each word with
+     * its spell corrected form if it exists in the dictionary. The words are then analyzed in the given pool, and the
+     * analyses are split back into the sentences, so that the output is in the original order of the words.
      *
-     * @param surfaceForm String to check.
-     * @return true if surfaceForm matches with the regex.
+     * @param sentences Sentences to be analyzed.
+     * @param pool      Fork join pool in which the words are analyzed.
+     * @param robust    If true, robustMorphologicalAnalysis is used, otherwise morphologicalAnalysis is used.
+     * @return Analyses of the sentences. The i'th array holds the analyses of the words of the i'th sentence.
      */
-    private boolean isInteger(String surfaceForm) {
-        if (!patternMatches("[-+]?\\d+", surfaceForm))
-            return false;
-        int len = surfaceForm.length();
-        if (len < 10) {
-            return true;
-        } else {
-            if (len > 10) {
-                return false;
-            } else {
-                return surfaceForm.compareTo("2147483647") <= 0;
+    private ArrayList<FsmParseList[]> analyzeInParallel(List<Sentence> sentences, ForkJoinPool pool, boolean robust) {
+        int wordCount = 0;
+        for (Sentence sentence : sentences) {
+            wordCount += sentence.wordCount();
+        }
+        String[] words = new String[wordCount];
+        int index = 0;
+        for (Sentence sentence : sentences) {
+            for (int i = 0; i < sentence.wordCount(); i++) {
+                String originalForm = sentence.getWord(i).getName();
+                String spellCorrectedForm = dictionary.getCorrectForm(originalForm);
+                if (spellCorrectedForm == null){
+                    spellCorrectedForm = originalForm;
+                }
+                words[index] = spellCorrectedForm;
+                index++;
             }
         }
+        FsmParseList[] analyses = new FsmParseList[wordCount];
+        pool.invoke(new ParallelAnalysisTask(this, words, analyses, robust, 0, wordCount));
+        ArrayList<FsmParseList[]> result = new ArrayList<>(sentences.size());
+        index = 0;
+        for (Sentence sentence : sentences) {
+            FsmParseList[] sentenceAnalyses = new FsmParseList[sentence.wordCount()];
+            System.arraycopy(analyses, index, sentenceAnalyses, 0, sentence.wordCount());
+            index += sentence.wordCount();
+            result.add(sentenceAnalyses);
+        }
+        return result;
     }
 
     /**
-     * The isDouble method compares input surfaceForm with the regex ([-+]?\d+\.\d+)|(\d*\.\d+) and returns the result.
+     * Parallel version of morphologicalAnalysis for a sentence. The words of the sentence are analyzed in the given
+     * pool, and the analyses are returned in the original order of the words.
      *
-     * @param surfaceForm String to check.
-     * @return true if surfaceForm matches with the regex.
+     * @param sentence Sentence to be analyzed.
+     * @param pool     Fork join pool in which the words are analyzed.
+     * @return FsmParseList array which holds the result of the analysis.
      */
-    private boolean isDouble(String surfaceForm) {
-        return patternMatches("([-+]?\\d+\\.\\d+)|(\\d*\\.\\d+)", surfaceForm);
+    public FsmParseList[] morphologicalAnalysis(Sentence sentence, ForkJoinPool pool) {
+        return analyzeInParallel(Collections.singletonList(sentence), pool, false).get(0);
     }
 
     /**
-     * The isNumber method compares input surfaceForm with the array of written numbers and returns the result.
+     * Parallel version of robustMorphologicalAnalysis for a sentence. The words of the sentence are analyzed in the
+     * given pool, and the analyses are returned in the original order of the words.
      *
-     * @param surfaceForm String to check.
-     * @return true if surfaceForm matches with the regex.
+     * @param sentence Sentence to be analyzed.
+     * @param pool     Fork join pool in which the words are analyzed.
+     * @return FsmParseList array which holds the result of the analysis.
      */
-    private boolean isNumber(String surfaceForm) {
-        boolean found;
-        int count = 0;
-        String[] numbers = {"bir", "iki", "üç", "dört", "beş", "altı", "yedi", "sekiz", "dokuz",
-                "on", "yirmi", "otuz", "kırk", "elli", "altmış", "yetmiş", "seksen", "doksan",
-                "yüz", "bin", "milyon", "milyar", "trilyon", "katrilyon"};
-        String word = surfaceForm;
-        while (!word.isEmpty()) {
-            found = false;
-            for (String number : numbers) {
-                if (word.startsWith(number)) {
-                    found = true;
-                    count++;
-                    word = word.substring(number.length());
-                    break;
-                }
-            }
-            if (!found) {
-                break;
-            }
-        }
-        return word.isEmpty() && count > 1;
+    public FsmParseList[] robustMorphologicalAnalysis(Sentence sentence, ForkJoinPool pool) {
+        return analyzeInParallel(Collections.singletonList(sentence), pool, true).get(0);
+    }
+
+    /**
+     * Parallel version of morphologicalAnalysis for a list of sentences. The words of all sentences are distributed
+     * over the given pool together, so that short sentences do not leave the workers idle.
+     *
+     * @param sentences Sentences to be analyzed.
+     * @param pool      Fork join pool in which the words are analyzed.
+     * @return Analyses of the sentences. The i'th array holds the analyses of the words of the i'th sentence.
+     */
+    public ArrayList<FsmParseList[]> morphologicalAnalysis(List<Sentence> sentences, ForkJoinPool pool) {
+        return analyzeInParallel(sentences, pool, false);
     }
 
     /**
-     * Checks if a given surface form matches to a percent value. It should be something like %4, %45, %4.3 or %56.786
-     * @param surfaceForm Surface form to be checked.
-     * @return True if the surface form is in percent form
+     * Parallel version of robustMorphologicalAnalysis for a list of sentences. The words of all sentences are
+     * distributed over the given pool together, so that short sentences do not leave the workers idle.
+     *
+     * @param sentences Sentences to be analyzed.
+     * @param pool      Fork join pool in which the words are analyzed.
+     * @return Analyses of the sentences. The i'th array holds the analyses of the words of the i'th sentence.
      */
-    private boolean isPercent(String surfaceForm){
-        return patternMatches("%(\\d\\d|\\d)", surfaceForm) || patternMatches("%(\\d\\d|\\d)\\.\\d+", surfaceForm);
+    public ArrayList<FsmParseList[]> robustMorphologicalAnalysis(List<Sentence> sentences, ForkJoinPool pool) {
+        return analyzeInParallel(sentences, pool, true);
     }
 
     /**
-     * Checks if a given surface form matches to a time form. It should be something like 3:34, 12:56 etc.
-     * @param surfaceForm Surface form to be checked.
-     * @return True if the surface form is in time form
+     * Parallel version of morphologicalAnalysis for a corpus. All words of the corpus are analyzed in the given pool.
+     *
+     * @param corpus Corpus to be analyzed.
+     * @param pool   Fork join pool in which the words are analyzed.
+     * @return Analyses of the sentences. The i'th array holds the analyses of the words of the i'th sentence.
      */
-    private boolean isTime(String surfaceForm) {
-        return patternMatches("(\\d\\d|\\d):(\\d\\d|\\d):(\\d\\d|\\d)", surfaceForm) || patternMatches("(\\d\\d|\\d):(\\d\\d|\\d)", surfaceForm);
+    public ArrayList<FsmParseList[]> morphologicalAnalysis(Corpus corpus, ForkJoinPool pool) {
+        ArrayList<Sentence> sentences = new ArrayList<>(corpus.sentenceCount());
+        for (int i = 0; i < corpus.sentenceCount(); i++) {
+            sentences.add(corpus.getSentence(i));
+        }
+        return analyzeInParallel(sentences, pool, false);
     }
 
     /**
-     * Checks if a given surface form matches to a range form. It should be something like 123-1400 or 12:34-15:78 or
-     * 3.45-4.67.
-     * @param surfaceForm Surface form to be checked.
-     * @return True if the surface form is in range form
+     * Parallel version of robustMorphologicalAnalysis for a corpus. All words of the corpus are analyzed in the given
+     * pool.
+     *
+     * @param corpus Corpus to be analyzed.
+     * @param pool   Fork join pool in which the words are analyzed.
+     * @return Analyses of the sentences. The i'th array holds the analyses of the words of the i'th sentence.
      */
-    private boolean isRange(String surfaceForm) {
-        return patternMatches("\\d+-\\d+", surfaceForm) || patternMatches("(\\d\\d|\\d):(\\d\\d|\\d)-(\\d\\d|\\d):(\\d\\d|\\d)", surfaceForm) || patternMatches("(\\d\\d|\\d)\\.(\\d\\d|\\d)-(\\d\\d|\\d)\\.(\\d\\d|\\d)", surfaceForm);
+    public ArrayList<FsmParseList[]> robustMorphologicalAnalysis(Corpus corpus, ForkJoinPool pool) {
+        ArrayList<Sentence> sentences = new ArrayList<>(corpus.sentenceCount());
+        for (int i = 0; i < corpus.sentenceCount(); i++) {
+            sentences.add(corpus.getSentence(i));
+        }
+        return analyzeInParallel(sentences, pool, true);
     }
 
     /**
-     * Checks if a given surface form matches to a date form. It should be something like 3/10/2023 or 2.3.2012
-     * @param surfaceForm Surface form to be checked.
-     * @return True if the surface form is in date form
+     * The isNumber method compares input surfaceForm with the array of written numbers and returns the result.
+     *
+     * @param surfaceForm String to check.
+     * @return true if surfaceForm matches with the regex.
      */
-    private boolean isDate(String surfaceForm) {
-        return patternMatches("(\\d\\d|\\d)/(\\d\\d|\\d)/\\d+", surfaceForm) || patternMatches("(\\d\\d|\\d)\\.(\\d\\d|\\d)\\.\\d+", surfaceForm);
+    private boolean isNumber(String surfaceForm) {
+        boolean found;
+        int count = 0;
+        int index = 0;
+        while (index < surfaceForm.length()) {
+            found = false;
+            for (String number : NUMBERS) {
+                if (surfaceForm.startsWith(number, index)) {
+                    found = true;
+                    count++;
+                    index += number.length();
+                    break;
+                }
+            }
+            if (!found) {
+                break;
+            }
+        }
+        return index == surfaceForm.length() && count > 1;
     }
 
     /**
@@ -1374,92 +1899,145 @@ public class FsmMorphologicalAnalyzer {
      * If the possibleRoot contains \d+-\d+, then it is added to the Trie with IS_RANGE tag.
      * If the possibleRoot is an Integer, then it is added to the Trie with IS_SAYI tag.
      * If the possibleRoot is a Double, then it is added to the Trie with IS_REELSAYI tag.
+     * <p>
+     * Results with at least one analysis are stored in the cache. Surface forms without any analysis are stored in a
+     * separate negative cache, so that a repeated unanalyzable token returns an empty list without searching again.
      *
      * @param surfaceForm String to analyse.
      * @return fsmParseList which holds the analysis.
      */
     public FsmParseList morphologicalAnalysis(String surfaceForm) {
+        long startTime = System.nanoTime();
+        AnalysisPath[] path = new AnalysisPath[1];
+        FsmParseList fsmParseList = analyzeSurfaceForm(surfaceForm, path);
+        statistics.record(path[0], System.nanoTime() - startTime);
+        return fsmParseList;
+    }
+
+    /**
+     * The analyzeSurfaceForm method does the analysis of the morphologicalAnalysis method, and stores the path followed
+     * for the statistics of the analyzer. The cache keeps its own copy of each parse list and returns a copy on a hit,
+     * since the caller may reduce the returned list while other threads read the cached one.
+     *
+     * @param surfaceForm String to analyse.
+     * @param path        Array of size one, in which the path of the analysis is stored.
+     * @return fsmParseList which holds the analysis.
+     */
+    private FsmParseList analyzeSurfaceForm(String surfaceForm, AnalysisPath[] path) {
         FsmParseList fsmParseList;
         TxtWord newWord;
-        String lowerCased = surfaceForm.toLowerCase(new Locale("tr"));
+        TokenClassifier tokenClassifier = new TokenClassifier(surfaceForm);
+        TokenType tokenType = tokenClassifier.getTokenType();
+        String lowerCased = tokenClassifier.getLowerCased();
         String possibleRootLowerCased = "", pronunciation = "";
         boolean isRootReplaced = false;
-        if (parsedSurfaceForms != null && parsedSurfaceForms.containsKey(lowerCased) && !isInteger(surfaceForm) && !isDouble(surfaceForm) && !isPercent(surfaceForm) && !isTime(surfaceForm) && !isRange(surfaceForm) && !isDate(surfaceForm)){
+        if (parsedSurfaceForms != null && parsedSurfaceForms.containsKey(lowerCased) && tokenType != TokenType.INTEGER && tokenType != TokenType.REAL && tokenType != TokenType.PERCENT && tokenType != TokenType.TIME && tokenType != TokenType.RANGE && tokenType != TokenType.DATE){
             ArrayList<FsmParse> parses = new ArrayList<>();
             parses.add(new FsmParse(new Word(parsedSurfaceForms.get(lowerCased))));
+            path[0] = AnalysisPath.PARSED_SURFACE_FORM;
             return new FsmParseList(parses);
         }
-        if (cache != null && cache.contains(surfaceForm)) {
-            return cache.get(surfaceForm);
+        if (cache != null) {
+            fsmParseList = cache.get(surfaceForm);
+            if (fsmParseList != null) {
+                path[0] = AnalysisPath.CACHE_HIT;
+                return new FsmParseList(fsmParseList);
+            }
+            if (negativeCache.get(surfaceForm) != null) {
+                path[0] = AnalysisPath.NEGATIVE_CACHE_HIT;
+                return new FsmParseList(new ArrayList<>());
+            }
+        }
+        HashMap<String, TxtWord> newRoots = new HashMap<>();
+        if (TokenClassifier.isAbbreviation(surfaceForm)) {
+            newRoots.put(lowerCased, new TxtWord(lowerCased, "IS_OA"));
+        }
+        if (lexicon != null && newRoots.isEmpty() && tokenType == TokenType.WORD) {
+            ArrayList<FsmParse> lexiconFsmParse = lexicon.lookup(lowerCased, isProperNoun(surfaceForm));
+            if (lexiconFsmParse != null) {
+                path[0] = AnalysisPath.LEXICON_HIT;
+                fsmParseList = new FsmParseList(lexiconFsmParse);
+                if (cache != null) {
+                    cache.add(surfaceForm, new FsmParseList(fsmParseList));
+                }
+                return fsmParseList;
+            }
         }
-        if (patternMatches("(\\w|Ç|Ş|İ|Ü|Ö)\\.",surfaceForm)) {
-            dictionaryTrie.addWord(lowerCased, new TxtWord(lowerCased, "IS_OA"));
+        ArrayList<FsmParse> defaultFsmParse = specialTokenAnalysis(lowerCased, tokenType);
+        if (defaultFsmParse != null) {
+            path[0] = AnalysisPath.SPECIAL_TOKEN;
+        } else {
+            path[0] = AnalysisPath.FSM_SEARCH;
+            defaultFsmParse = parseWord(initializeParseListFromSurfaceForm(lowerCased, isProperNoun(surfaceForm), newRoots), lowerCased);
         }
-        ArrayList<FsmParse> defaultFsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
         if (!defaultFsmParse.isEmpty()) {
             fsmParseList = new FsmParseList(defaultFsmParse);
             if (cache != null) {
-                cache.add(surfaceForm, fsmParseList);
+                cache.add(surfaceForm, new FsmParseList(fsmParseList));
             }
             return fsmParseList;
         }
         ArrayList<FsmParse> fsmParse = new ArrayList<>();
         if (surfaceForm.contains("'")) {
+            path[0] = AnalysisPath.APOSTROPHE_ROOT;
             String possibleRoot = surfaceForm.substring(0, surfaceForm.indexOf('\''));
+            TokenType rootType = TokenClassifier.classify(possibleRoot);
             if (!possibleRoot.isEmpty()) {
                 if (possibleRoot.contains("/") || possibleRoot.contains("\\/")) {
-                    dictionaryTrie.addWord(possibleRoot, new TxtWord(possibleRoot, "IS_KESIR"));
-                    fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                    newRoots.put(possibleRoot, new TxtWord(possibleRoot, "IS_KESIR"));
+                    fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                 } else {
-                    if (isDate(possibleRoot)) {
-                        dictionaryTrie.addWord(possibleRoot, new TxtWord(possibleRoot, "IS_DATE"));
-                        fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                    if (rootType == TokenType.DATE) {
+                        newRoots.put(possibleRoot, new TxtWord(possibleRoot, "IS_DATE"));
+                        fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                     } else {
-                        if (patternMatches("\\d+/\\d+", possibleRoot)) {
-                            dictionaryTrie.addWord(possibleRoot, new TxtWord(possibleRoot, "IS_KESIR"));
-                            fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                        if (rootType == TokenType.FRACTION) {
+                            newRoots.put(possibleRoot, new TxtWord(possibleRoot, "IS_KESIR"));
+                            fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                         } else {
-                            if (isPercent(possibleRoot)) {
-                                dictionaryTrie.addWord(possibleRoot, new TxtWord(possibleRoot, "IS_PERCENT"));
-                                fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                            if (rootType == TokenType.PERCENT) {
+                                newRoots.put(possibleRoot, new TxtWord(possibleRoot, "IS_PERCENT"));
+                                fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                             } else {
-                                if (isTime(surfaceForm)) {
-                                    dictionaryTrie.addWord(possibleRoot, new TxtWord(possibleRoot, "IS_ZAMAN"));
-                                    fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                                if (tokenType == TokenType.TIME) {
+                                    newRoots.put(possibleRoot, new TxtWord(possibleRoot, "IS_ZAMAN"));
+                                    fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                                 } else {
-                                    if (isRange(surfaceForm)) {
-                                        dictionaryTrie.addWord(possibleRoot, new TxtWord(possibleRoot, "IS_RANGE"));
-                                        fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                                    if (tokenType == TokenType.RANGE) {
+                                        newRoots.put(possibleRoot, new TxtWord(possibleRoot, "IS_RANGE"));
+                                        fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                                     } else {
-                                        if (isInteger(possibleRoot)) {
-                                            dictionaryTrie.addWord(possibleRoot, new TxtWord(possibleRoot, "IS_SAYI"));
-                                            fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                                        if (rootType == TokenType.INTEGER) {
+                                            newRoots.put(possibleRoot, new TxtWord(possibleRoot, "IS_SAYI"));
+                                            fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                                         } else {
-                                            if (isDouble(possibleRoot)) {
-                                                dictionaryTrie.addWord(possibleRoot, new TxtWord(possibleRoot, "IS_REELSAYI"));
-                                                fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                                            if (rootType == TokenType.REAL) {
+                                                newRoots.put(possibleRoot, new TxtWord(possibleRoot, "IS_REELSAYI"));
+                                                fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                                             } else {
                                                 if (Word.isCapital(possibleRoot) || "QXW".contains(possibleRoot.substring(0, 1))) {
-                                                    possibleRootLowerCased = possibleRoot.toLowerCase(new Locale("tr"));
+                                                    possibleRootLowerCased = TokenClassifier.toLowerCase(possibleRoot);
                                                     if (pronunciations.containsKey(possibleRootLowerCased)){
                                                         isRootReplaced = true;
                                                         pronunciation = pronunciations.get(possibleRootLowerCased);
                                                         if (dictionary.getWord(pronunciation) != null) {
-                                                            ((TxtWord) dictionary.getWord(pronunciation)).addFlag("IS_OA");
+                                                            newWord = ((TxtWord) dictionary.getWord(pronunciation)).clone();
+                                                            newWord.addFlag("IS_OA");
                                                         } else {
                                                             newWord = new TxtWord(pronunciation, "IS_OA");
-                                                            dictionaryTrie.addWord(pronunciation, newWord);
                                                         }
+                                                        newRoots.put(pronunciation, newWord);
                                                         String replacedWord = pronunciation + lowerCased.substring(possibleRootLowerCased.length());
-                                                        fsmParse = analysis(replacedWord, isProperNoun(surfaceForm));
+                                                        fsmParse = analysis(replacedWord, isProperNoun(surfaceForm), newRoots);
                                                     } else {
                                                         if (dictionary.getWord(possibleRootLowerCased) != null) {
-                                                            ((TxtWord) dictionary.getWord(possibleRootLowerCased)).addFlag("IS_OA");
+                                                            newWord = ((TxtWord) dictionary.getWord(possibleRootLowerCased)).clone();
+                                                            newWord.addFlag("IS_OA");
                                                         } else {
                                                             newWord = new TxtWord(possibleRootLowerCased, "IS_OA");
-                                                            dictionaryTrie.addWord(possibleRootLowerCased, newWord);
                                                         }
-                                                        fsmParse = analysis(lowerCased, isProperNoun(surfaceForm));
+                                                        newRoots.put(possibleRootLowerCased, newWord);
+                                                        fsmParse = analysis(lowerCased, isProperNoun(surfaceForm), newRoots);
                                                     }
                                                 }
                                             }
@@ -1478,8 +2056,12 @@ public class FsmMorphologicalAnalyzer {
             }
         }
         fsmParseList = new FsmParseList(fsmParse);
-        if (cache != null && fsmParseList.size() > 0) {
-            cache.add(surfaceForm, fsmParseList);
+        if (cache != null) {
+            if (fsmParseList.size() > 0) {
+                cache.add(surfaceForm, new FsmParseList(fsmParseList));
+            } else {
+                negativeCache.add(surfaceForm, Boolean.TRUE);
+            }
         }
         return fsmParseList;
     }
@@ -1493,7 +2075,7 @@ public class FsmMorphologicalAnalyzer {
      * @return true an analysis exists, otherwise return false.
      */
     public boolean morphologicalAnalysisExists(TxtWord rootWord, String surfaceForm) {
-        return analysisExists(rootWord, surfaceForm.toLowerCase(new Locale("tr")), true);
+        return analysisExists(rootWord, TokenClassifier.toLowerCase(surfaceForm), true);
     }
 
 }
\ No newline at end of file
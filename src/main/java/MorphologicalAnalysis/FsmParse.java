@@ -1,12 +1,26 @@
 package MorphologicalAnalysis;
 
+import Dictionary.TxtDictionary;
 import Dictionary.TxtWord;
 import Dictionary.Word;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
 
 public class FsmParse extends MorphologicalParse implements Comparable {
 
+    private static final String[] ROOT_FLAGS = {"CL_FIIL", "CL_ISIM", "F1P1", "F1P1-NO-REF", "F2P1", "F2P1-NO-REF", "F3P1",
+            "F3P1-NO-REF", "F4P1", "F4P1-NO-REF", "F4PL", "F4PL-NO-REF", "F4PR", "F4PR-NO-REF", "F4PW", "F4PW-NO-REF",
+            "F5P1", "F5PL", "F5PL-NO-REF", "F5PR", "F5PR-NO-REF", "F5PW", "F5PW-NO-REF", "F6P1", "F_GUD", "F_GUDA", "F_SD",
+            "F_UD", "IS_ADJ", "IS_BAG", "IS_BILES", "IS_B_SD", "IS_B_SI", "IS_B_UD", "IS_CA", "IS_CODE", "IS_DATE",
+            "IS_DET", "IS_DUP", "IS_EDAT", "IS_EX", "IS_HEADER", "IS_KESIR", "IS_KG", "IS_KI", "IS_KIS", "IS_KU",
+            "IS_METRIC", "IS_OA", "IS_ORD", "IS_PADJ", "IS_PASS", "IS_PERCENT", "IS_RANGE", "IS_REELSAYI", "IS_SAYI",
+            "IS_SD", "IS_SDD", "IS_SII", "IS_SORU", "IS_ST", "IS_STT", "IS_SU", "IS_UD", "IS_UDD", "IS_UNLEM", "IS_UU",
+            "IS_UUU", "IS_ZAMAN", "IS_ZARF", "IS_ZM"};
     private ArrayList<State> suffixList;
     private ArrayList<String> formList;
     private ArrayList<String> transitionList;
@@ -16,6 +30,9 @@ public class FsmParse extends MorphologicalParse implements Comparable {
     private String form;
     private String verbAgreement = null;
     private String possesiveAgreement = null;
+    private String transitionListKey = null;
+    private volatile boolean inflectionalGroupsPending = false;
+    private String inflectionalGroupsSource = null;
 
     /**
      * A constructor of {@link FsmParse} class which takes a {@link Word} as an input and assigns it to root variable.
@@ -122,29 +139,72 @@ public class FsmParse extends MorphologicalParse implements Comparable {
     }
 
     /**
-     * The constructInflectionalGroups method initially calls the transitionList method and assigns the resulting {@link String}
-     * to the parse variable and creates a new {@link ArrayList} as iGs. If parse {@link String} contains a derivational boundary
-     * it adds the substring starting from the 0 to the index of derivational boundary to the iGs. If it does not contain a DB,
-     * it directly adds parse to the iGs. Then, creates and initializes new {@link ArrayList} as inflectionalGroups and fills with
-     * the items of iGs.
+     * The constructInflectionalGroups method marks the inflectional groups of the parse to be constructed from its
+     * transition list. The inflectional groups are not constructed here, but by the inflectionalGroups method when
+     * they are first needed, so that the parses whose inflectional groups are never read do not pay their cost. If the
+     * parse changes before that, the inflectional groups are still constructed from the transition list at the time of
+     * this call.
      */
     public void constructInflectionalGroups() {
-        String parse = transitionList();
-        int i;
-        ArrayList<String> iGs;
-        iGs = new ArrayList<>();
-        while (parse.contains("^DB+")) {
-            iGs.add(parse.substring(0, parse.indexOf("^DB+")));
-            parse = parse.substring(parse.indexOf("^DB+") + 4);
+        synchronized (this) {
+            inflectionalGroups = null;
+            inflectionalGroupsSource = null;
+            inflectionalGroupsPending = true;
         }
-        iGs.add(parse);
-        inflectionalGroups = new ArrayList<>();
-        inflectionalGroups.add(new InflectionalGroup(iGs.get(0).substring(iGs.get(0).indexOf('+') + 1)));
-        for (i = 1; i < iGs.size(); i++) {
-            inflectionalGroups.add(new InflectionalGroup(iGs.get(i)));
+    }
+
+    /**
+     * The keepInflectionalGroupsSource method is called before the parse changes. If the inflectional groups are
+     * marked to be constructed but not yet constructed, it keeps the current transition list to construct them from.
+     */
+    private void keepInflectionalGroupsSource() {
+        if (inflectionalGroupsPending) {
+            synchronized (this) {
+                if (inflectionalGroupsPending && inflectionalGroupsSource == null) {
+                    inflectionalGroupsSource = transitionList();
+                }
+            }
         }
     }
 
+    /**
+     * The inflectionalGroups method constructs the inflectional groups if they are marked to be constructed, and
+     * returns them. The construction is done once, while holding the lock of the parse, so that the parses shared
+     * between threads construct their inflectional groups only once.
+     * <p>
+     * The transition list is split from the derivational boundaries. The first part is added after removing the root,
+     * and the other parts are added directly as new {@link InflectionalGroup}s.
+     *
+     * @return Inflectional groups of the parse.
+     */
+    @Override
+    protected ArrayList<InflectionalGroup> inflectionalGroups() {
+        if (inflectionalGroupsPending) {
+            synchronized (this) {
+                if (inflectionalGroupsPending) {
+                    String parse = inflectionalGroupsSource != null ? inflectionalGroupsSource : transitionList();
+                    int i;
+                    ArrayList<String> iGs;
+                    iGs = new ArrayList<>();
+                    while (parse.contains("^DB+")) {
+                        iGs.add(parse.substring(0, parse.indexOf("^DB+")));
+                        parse = parse.substring(parse.indexOf("^DB+") + 4);
+                    }
+                    iGs.add(parse);
+                    ArrayList<InflectionalGroup> groups = new ArrayList<>();
+                    groups.add(new InflectionalGroup(iGs.get(0).substring(iGs.get(0).indexOf('+') + 1)));
+                    for (i = 1; i < iGs.size(); i++) {
+                        groups.add(new InflectionalGroup(iGs.get(i)));
+                    }
+                    inflectionalGroups = groups;
+                    inflectionalGroupsSource = null;
+                    inflectionalGroupsPending = false;
+                }
+            }
+        }
+        return inflectionalGroups;
+    }
+
     /**
      * Getter for the verbAgreement variable.
      *
@@ -232,6 +292,7 @@ public class FsmParse extends MorphologicalParse implements Comparable {
      * @param toPos      {@link String} input.
      */
     public void addSuffix(State suffix, String form, String transition, String with, String toPos) {
+        keepInflectionalGroupsSource();
         if (suffix.getPos() != null) {
             pos = suffix.getPos();
         } else {
@@ -246,6 +307,7 @@ public class FsmParse extends MorphologicalParse implements Comparable {
             withList.add(with);
         }
         this.form = form;
+        transitionListKey = null;
     }
 
     /**
@@ -291,9 +353,11 @@ public class FsmParse extends MorphologicalParse implements Comparable {
      * @param name String input to set form.
      */
     public void setForm(String name) {
+        keepInflectionalGroupsSource();
         form = name;
         formList.remove(0);
         formList.add(name);
+        transitionListKey = null;
     }
 
     /**
@@ -320,6 +384,7 @@ public class FsmParse extends MorphologicalParse implements Comparable {
         p.initialPos = initialPos;
         p.verbAgreement = verbAgreement;
         p.possesiveAgreement = possesiveAgreement;
+        p.transitionListKey = transitionListKey;
         p.suffixList = new ArrayList<>();
         for (i = 0; i < suffixList.size(); i++) {
             p.suffixList.add(suffixList.get(i));
@@ -339,6 +404,112 @@ public class FsmParse extends MorphologicalParse implements Comparable {
         return p;
     }
 
+    /**
+     * The write method writes the parse to the given output in the binary format of the cache snapshots. Each string
+     * is written as its index in the string table of the snapshot. The root is written by its name if it is the word of
+     * the dictionary with that name, otherwise with its name and the list of its flags among ROOT_FLAGS. The states are
+     * written with their names, start and end flags and pos.
+     *
+     * @param outputStream Output to write the parse.
+     * @param dictionary   Dictionary of the analyzer.
+     * @param strings      String table of the snapshot, mapping each string to its index.
+     * @throws IOException If the output can not be written.
+     */
+    void write(DataOutputStream outputStream, TxtDictionary dictionary, HashMap<String, Integer> strings) throws IOException {
+        String rootName = root.getName();
+        if (dictionary.getWord(rootName) == root) {
+            outputStream.writeByte(0);
+            CacheSnapshot.writeString(outputStream, rootName, strings);
+        } else {
+            if (root instanceof TxtWord) {
+                outputStream.writeByte(1);
+                CacheSnapshot.writeString(outputStream, rootName, strings);
+                ArrayList<String> flags = new ArrayList<>();
+                for (String flag : ROOT_FLAGS) {
+                    if (((TxtWord) root).containsFlag(flag)) {
+                        flags.add(flag);
+                    }
+                }
+                CacheSnapshot.writeStringList(outputStream, flags, strings);
+            } else {
+                outputStream.writeByte(2);
+                CacheSnapshot.writeString(outputStream, rootName, strings);
+            }
+        }
+        CacheSnapshot.writeString(outputStream, form, strings);
+        CacheSnapshot.writeString(outputStream, pos, strings);
+        CacheSnapshot.writeString(outputStream, initialPos, strings);
+        CacheSnapshot.writeString(outputStream, verbAgreement, strings);
+        CacheSnapshot.writeString(outputStream, possesiveAgreement, strings);
+        outputStream.writeInt(suffixList.size());
+        for (State state : suffixList) {
+            CacheSnapshot.writeString(outputStream, state.getName(), strings);
+            outputStream.writeBoolean(state.isStartState());
+            outputStream.writeBoolean(state.isEndState());
+            CacheSnapshot.writeString(outputStream, state.getPos(), strings);
+        }
+        CacheSnapshot.writeStringList(outputStream, formList, strings);
+        CacheSnapshot.writeStringList(outputStream, transitionList, strings);
+        CacheSnapshot.writeStringList(outputStream, withList, strings);
+        outputStream.writeBoolean(inflectionalGroupsPending || inflectionalGroups != null);
+    }
+
+    /**
+     * The read method reads a parse written by the write method. The states are replaced with the states of the finite
+     * state machine having the same name, flags and pos, so that the parse can be used as a parse found by the
+     * analyzer.
+     *
+     * @param buffer             Buffer to read the parse.
+     * @param strings            String table of the snapshot.
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param dictionary         Dictionary of the analyzer.
+     * @return Parse read.
+     */
+    static FsmParse read(ByteBuffer buffer, String[] strings, FiniteStateMachine finiteStateMachine, TxtDictionary dictionary) {
+        Word root;
+        byte rootType = buffer.get();
+        String rootName = CacheSnapshot.readString(buffer, strings);
+        if (rootType == 0) {
+            root = dictionary.getWord(rootName);
+        } else {
+            if (rootType == 1) {
+                TxtWord word = new TxtWord(rootName);
+                for (String flag : CacheSnapshot.readStringList(buffer, strings)) {
+                    word.addFlag(flag);
+                }
+                root = word;
+            } else {
+                root = new Word(rootName);
+            }
+        }
+        FsmParse p = new FsmParse(root);
+        p.form = CacheSnapshot.readString(buffer, strings);
+        p.pos = CacheSnapshot.readString(buffer, strings);
+        p.initialPos = CacheSnapshot.readString(buffer, strings);
+        p.verbAgreement = CacheSnapshot.readString(buffer, strings);
+        p.possesiveAgreement = CacheSnapshot.readString(buffer, strings);
+        int stateCount = buffer.getInt();
+        p.suffixList = new ArrayList<>(stateCount);
+        for (int i = 0; i < stateCount; i++) {
+            String name = CacheSnapshot.readString(buffer, strings);
+            boolean startState = buffer.get() != 0;
+            boolean endState = buffer.get() != 0;
+            String statePos = CacheSnapshot.readString(buffer, strings);
+            State state = finiteStateMachine.getState(name);
+            if (state == null || !state.getName().equals(name) || state.isStartState() != startState || state.isEndState() != endState || !Objects.equals(state.getPos(), statePos)) {
+                state = new State(name, startState, endState, statePos);
+            }
+            p.suffixList.add(state);
+        }
+        p.formList = CacheSnapshot.readStringList(buffer, strings);
+        p.transitionList = CacheSnapshot.readStringList(buffer, strings);
+        p.withList = CacheSnapshot.readStringList(buffer, strings);
+        if (buffer.get() != 0) {
+            p.constructInflectionalGroups();
+        }
+        return p;
+    }
+
     /**
      * The headerTransition method gets the first item of formList and checks for cases;
      * <p>
@@ -428,7 +599,7 @@ public class FsmParse extends MorphologicalParse implements Comparable {
     }
 
     /**
-     * The transitionList method first creates an empty {@link String} result, then gets the first item of suffixList and checks for cases;
+     * The buildTransitionList method first creates an empty {@link String} result, then gets the first item of suffixList and checks for cases;
      * <p>
      * If it is one of the "NominalRoot, NominalRootNoPossesive, CompoundNounRoot, NominalRootPlural", it assigns concatenation of first
      * item of formList and +NOUN to the result String.
@@ -534,7 +705,7 @@ public class FsmParse extends MorphologicalParse implements Comparable {
      *
      * @return String result accumulated with items of formList.
      */
-    public String transitionList() {
+    private String buildTransitionList() {
         StringBuilder result = new StringBuilder();
         if (suffixList.get(0).getName().equalsIgnoreCase("NominalRoot") || suffixList.get(0).getName().equalsIgnoreCase("NominalRootNoPossesive") || suffixList.get(0).getName().equalsIgnoreCase("CompoundNounRoot") || suffixList.get(0).getName().equalsIgnoreCase("NominalRootPlural")) {
             result = new StringBuilder(formList.get(0) + "+NOUN");
@@ -671,6 +842,22 @@ public class FsmParse extends MorphologicalParse implements Comparable {
         return result.toString();
     }
 
+    /**
+     * The transitionList method returns the transition list of the parse, which is used as the key of the parse while
+     * sorting and comparing parses. The transition list is built by the buildTransitionList method on the first call,
+     * and kept until the suffixes or the forms of the parse change.
+     *
+     * @return Transition list of the parse.
+     */
+    public String transitionList() {
+        String key = transitionListKey;
+        if (key == null) {
+            key = buildTransitionList();
+            transitionListKey = key;
+        }
+        return key;
+    }
+
     /**
      * The suffixList method gets the first items of suffixList and formList and concatenates them with parenthesis and
      * assigns a String result. Then, loops through the formList and it the current ith item is not equal to previous
@@ -751,11 +938,13 @@ public class FsmParse extends MorphologicalParse implements Comparable {
      * @param pronunciation Pronunciation of the proper noun.
      */
     public void restoreOriginalForm(String original, String pronunciation){
+        keepInflectionalGroupsSource();
         root = new TxtWord(original, "IS_OA");
         form = original + form.substring(pronunciation.length());
         for (int i = 0; i < formList.size(); i++) {
             formList.set(i, original + formList.get(i).substring(pronunciation.length()));
         }
+        transitionListKey = null;
     }
 
 }
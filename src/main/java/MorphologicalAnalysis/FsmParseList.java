@@ -64,7 +64,7 @@ public class FsmParseList {
     public FsmParseList(ArrayList<FsmParse> fsmParses) {
         Collections.sort(fsmParses);
         for (int i = 0; i < fsmParses.size() - 1; i++) {
-            if (fsmParses.get(i).transitionList().equals(fsmParses.get(i + 1).transitionList())) {
+            if (fsmParses.get(i).compareTo(fsmParses.get(i + 1)) == 0) {
                 fsmParses.remove(i + 1);
                 i--;
             }
@@ -72,6 +72,16 @@ public class FsmParseList {
         this.fsmParses = fsmParses;
     }
 
+    /**
+     * A copy constructor of {@link FsmParseList} class. The copy has its own {@link ArrayList} of the same parses, so
+     * that reducing one of them does not change the other.
+     *
+     * @param fsmParseList {@link FsmParseList} to copy.
+     */
+    public FsmParseList(FsmParseList fsmParseList) {
+        this.fsmParses = new ArrayList<>(fsmParseList.fsmParses);
+    }
+
     /**
      * The size method returns the size of fsmParses {@link ArrayList}.
      *
@@ -0,0 +1,231 @@
+package MorphologicalAnalysis;
+
+import Dictionary.TxtDictionary;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class FullFormLexicon {
+
+    private static final int MAGIC = 0x46534D4C;
+    private static final int VERSION = 1;
+    private static final int NODE_SIZE = 16;
+    private final FiniteStateMachine finiteStateMachine;
+    private final TxtDictionary dictionary;
+    private final MappedByteBuffer buffer;
+    private final String[] strings;
+    private final int nodeStart;
+    private final int valueStart;
+
+    /**
+     * A node of the trie while the lexicon is being saved.
+     */
+    private static class Node {
+        TreeMap<Character, Node> children = new TreeMap<>();
+        int value = -1;
+        int firstChild;
+    }
+
+    /**
+     * Constructor of FullFormLexicon class. It keeps the memory mapped lexicon file together with its string table.
+     *
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param dictionary         Dictionary of the analyzer.
+     * @param buffer             Memory mapped lexicon file.
+     * @param strings            String table of the lexicon.
+     * @param nodeStart          Position of the first trie node in the buffer.
+     * @param valueStart         Position of the first encoded parse list in the buffer.
+     */
+    private FullFormLexicon(FiniteStateMachine finiteStateMachine, TxtDictionary dictionary, MappedByteBuffer buffer,
+                            String[] strings, int nodeStart, int valueStart) {
+        this.finiteStateMachine = finiteStateMachine;
+        this.dictionary = dictionary;
+        this.buffer = buffer;
+        this.strings = strings;
+        this.nodeStart = nodeStart;
+        this.valueStart = valueStart;
+    }
+
+    /**
+     * Saves the given surface forms and their parses as a lexicon file. The file starts with the versions of the finite
+     * state machine and the dictionary, followed by a table of the distinct strings in UTF-8. Then comes a trie of the
+     * surface forms in breadth first order, where each node is written as the index of its first child, the number of
+     * its children, the offset of its parse list and its character. The children of a node are consecutive and sorted
+     * by their characters. The parse lists come last; each parse is preceded by a byte which is 1 if the parse starts
+     * from the ProperRoot state.
+     *
+     * @param fileName           Name of the lexicon file.
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param dictionary         Dictionary of the analyzer.
+     * @param entries            Surface forms and their parses.
+     * @throws IOException If the file can not be written.
+     */
+    public static void save(String fileName, FiniteStateMachine finiteStateMachine, TxtDictionary dictionary,
+                            TreeMap<String, ArrayList<FsmParse>> entries) throws IOException {
+        HashMap<String, Integer> strings = new HashMap<>();
+        ByteArrayOutputStream values = new ByteArrayOutputStream();
+        DataOutputStream valueStream = new DataOutputStream(values);
+        Node rootNode = new Node();
+        for (Map.Entry<String, ArrayList<FsmParse>> entry : entries.entrySet()) {
+            Node node = rootNode;
+            for (int i = 0; i < entry.getKey().length(); i++) {
+                node = node.children.computeIfAbsent(entry.getKey().charAt(i), c -> new Node());
+            }
+            node.value = valueStream.size();
+            valueStream.writeInt(entry.getValue().size());
+            for (FsmParse fsmParse : entry.getValue()) {
+                valueStream.writeByte(fsmParse.getStartState().getName().equals("ProperRoot") ? 1 : 0);
+                fsmParse.write(valueStream, dictionary, strings);
+            }
+        }
+        valueStream.flush();
+        ArrayList<Node> nodes = new ArrayList<>();
+        ArrayList<Character> labels = new ArrayList<>();
+        nodes.add(rootNode);
+        labels.add('\u0000');
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            node.firstChild = nodes.size();
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                nodes.add(child.getValue());
+                labels.add(child.getKey());
+            }
+        }
+        String[] table = new String[strings.size()];
+        for (Map.Entry<String, Integer> entry : strings.entrySet()) {
+            table[entry.getValue()] = entry.getKey();
+        }
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeLong(CacheSnapshot.fingerprint(finiteStateMachine));
+            outputStream.writeLong(CacheSnapshot.fingerprint(dictionary));
+            outputStream.writeInt(table.length);
+            for (String string : table) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                outputStream.writeInt(bytes.length);
+                outputStream.write(bytes);
+            }
+            outputStream.writeInt(nodes.size());
+            for (int i = 0; i < nodes.size(); i++) {
+                Node node = nodes.get(i);
+                outputStream.writeInt(node.firstChild);
+                outputStream.writeInt(node.children.size());
+                outputStream.writeInt(node.value);
+                outputStream.writeInt(labels.get(i));
+            }
+            outputStream.writeInt(values.size());
+            values.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * Loads a lexicon saved by the save method. The file is memory mapped; only the string table is read into the
+     * heap, the trie and the parses are read from the mapped file during the lookups. If the file is not a lexicon, or
+     * its finite state machine or dictionary version is different from the analyzer's, nothing is loaded.
+     *
+     * @param fileName           Name of the lexicon file.
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param dictionary         Dictionary of the analyzer.
+     * @return Loaded lexicon, null if the file can not be loaded.
+     */
+    public static FullFormLexicon load(String fileName, FiniteStateMachine finiteStateMachine, TxtDictionary dictionary) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            if (buffer.getLong() != CacheSnapshot.fingerprint(finiteStateMachine) || buffer.getLong() != CacheSnapshot.fingerprint(dictionary)) {
+                return null;
+            }
+            int stringCount = buffer.getInt();
+            if (stringCount < 0 || stringCount > buffer.remaining() / 4) {
+                return null;
+            }
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    return null;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int nodeCount = buffer.getInt();
+            if (nodeCount <= 0 || nodeCount > buffer.remaining() / NODE_SIZE) {
+                return null;
+            }
+            int nodeStart = buffer.position();
+            buffer.position(nodeStart + nodeCount * NODE_SIZE);
+            int valueLength = buffer.getInt();
+            if (valueLength != buffer.remaining()) {
+                return null;
+            }
+            return new FullFormLexicon(finiteStateMachine, dictionary, buffer, strings, nodeStart, buffer.position());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the parses of the given surface form. The trie is walked from the root, searching the children of each
+     * node for the next character with binary search. Parses starting from the ProperRoot state are skipped unless the
+     * surface form is a proper noun.
+     *
+     * @param surfaceForm Lowercased surface form.
+     * @param isProper    True if the original surface form is capitalized.
+     * @return Parses of the surface form, null if the surface form is not in the lexicon or has no parses.
+     */
+    public ArrayList<FsmParse> lookup(String surfaceForm, boolean isProper) {
+        int node = 0;
+        for (int i = 0; i < surfaceForm.length(); i++) {
+            int position = nodeStart + node * NODE_SIZE;
+            int low = buffer.getInt(position), high = low + buffer.getInt(position + 4) - 1;
+            char c = surfaceForm.charAt(i);
+            node = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int label = buffer.getInt(nodeStart + middle * NODE_SIZE + 12);
+                if (label < c) {
+                    low = middle + 1;
+                } else {
+                    if (label > c) {
+                        high = middle - 1;
+                    } else {
+                        node = middle;
+                        break;
+                    }
+                }
+            }
+            if (node == -1) {
+                return null;
+            }
+        }
+        int value = buffer.getInt(nodeStart + node * NODE_SIZE + 8);
+        if (value < 0) {
+            return null;
+        }
+        ByteBuffer parseBuffer = buffer.duplicate();
+        parseBuffer.position(valueStart + value);
+        int parseCount = parseBuffer.getInt();
+        ArrayList<FsmParse> result = new ArrayList<>(parseCount);
+        for (int i = 0; i < parseCount; i++) {
+            boolean properRoot = parseBuffer.get() == 1;
+            FsmParse fsmParse = FsmParse.read(parseBuffer, strings, finiteStateMachine, dictionary);
+            if (isProper || !properRoot) {
+                result.add(fsmParse);
+            }
+        }
+        if (result.isEmpty()) {
+            return null;
+        }
+        return result;
+    }
+}
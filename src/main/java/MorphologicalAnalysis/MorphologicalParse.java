@@ -109,6 +109,16 @@ public class MorphologicalParse implements Serializable {
         }
     }
 
+    /**
+     * Accessor for the inflectional groups of the parse. The methods of the parse read the inflectional groups only
+     * through this method, so that a subclass can construct them when they are first needed.
+     *
+     * @return Inflectional groups of the parse.
+     */
+    protected ArrayList<InflectionalGroup> inflectionalGroups() {
+        return inflectionalGroups;
+    }
+
     /**
      * The getTransitionList method gets the first item of inflectionalGroups {@link ArrayList} as a {@link String}, then loops
      * through the items of inflectionalGroups and concatenates them by using +.
@@ -116,9 +126,9 @@ public class MorphologicalParse implements Serializable {
      * @return String that contains transition list.
      */
     public String getTransitionList() {
-        StringBuilder result = new StringBuilder(inflectionalGroups.get(0).toString());
-        for (int i = 1; i < inflectionalGroups.size(); i++) {
-            result.append("+").append(inflectionalGroups.get(i).toString());
+        StringBuilder result = new StringBuilder(inflectionalGroups().get(0).toString());
+        for (int i = 1; i < inflectionalGroups().size(); i++) {
+            result.append("+").append(inflectionalGroups().get(i).toString());
         }
         return result.toString();
     }
@@ -133,9 +143,9 @@ public class MorphologicalParse implements Serializable {
      */
     public String getInflectionalGroupString(int index) {
         if (index == 0) {
-            return root.getName() + "+" + inflectionalGroups.get(0).toString();
+            return root.getName() + "+" + inflectionalGroups().get(0).toString();
         } else {
-            return inflectionalGroups.get(index).toString();
+            return inflectionalGroups().get(index).toString();
         }
     }
 
@@ -147,7 +157,7 @@ public class MorphologicalParse implements Serializable {
      * @return InflectionalGroup at given index.
      */
     public InflectionalGroup getInflectionalGroup(int index) {
-        return inflectionalGroups.get(index);
+        return inflectionalGroups().get(index);
     }
 
     /**
@@ -156,7 +166,7 @@ public class MorphologicalParse implements Serializable {
      * @return the last {@link InflectionalGroup} of inflectionalGroups {@link ArrayList}.
      */
     public InflectionalGroup getLastInflectionalGroup() {
-        return getInflectionalGroup(inflectionalGroups.size() - 1);
+        return getInflectionalGroup(inflectionalGroups().size() - 1);
     }
 
     /**
@@ -170,7 +180,7 @@ public class MorphologicalParse implements Serializable {
         int size = 1;
         if (index == 0)
             return root.getName();
-        for (InflectionalGroup group : inflectionalGroups) {
+        for (InflectionalGroup group : inflectionalGroups()) {
             if (index < size + group.size()) {
                 return InflectionalGroup.getTag(group.getTag(index - size));
             }
@@ -187,7 +197,7 @@ public class MorphologicalParse implements Serializable {
      */
     public int tagSize() {
         int size = 1;
-        for (InflectionalGroup group : inflectionalGroups) {
+        for (InflectionalGroup group : inflectionalGroups()) {
             size += group.size();
         }
         return size;
@@ -199,7 +209,7 @@ public class MorphologicalParse implements Serializable {
      * @return the size of the inflectionalGroups {@link ArrayList}.
      */
     public int size() {
-        return inflectionalGroups.size();
+        return inflectionalGroups().size();
     }
 
     /**
@@ -208,7 +218,7 @@ public class MorphologicalParse implements Serializable {
      * @return the first inflectional group of inflectionalGroups {@link ArrayList}.
      */
     public InflectionalGroup firstInflectionalGroup() {
-        return inflectionalGroups.get(0);
+        return inflectionalGroups().get(0);
     }
 
     /**
@@ -217,7 +227,7 @@ public class MorphologicalParse implements Serializable {
      * @return the last inflectional group of inflectionalGroups {@link ArrayList}.
      */
     public InflectionalGroup lastInflectionalGroup() {
-        return inflectionalGroups.get(inflectionalGroups.size() - 1);
+        return inflectionalGroups().get(inflectionalGroups().size() - 1);
     }
 
     /**
@@ -488,7 +498,7 @@ public class MorphologicalParse implements Serializable {
      * @return true if {@link InflectionalGroup}'s MorphologicalTags are from the agreement plural or possessive plural.
      */
     public boolean isPlural() {
-        for (InflectionalGroup inflectionalGroup : inflectionalGroups){
+        for (InflectionalGroup inflectionalGroup : inflectionalGroups()){
             if (inflectionalGroup.containsPlural()) {
                 return true;
             }
@@ -513,7 +523,7 @@ public class MorphologicalParse implements Serializable {
      * @return true if the input matches with on of the tags in the IG, false otherwise.
      */
     public boolean containsTag(MorphologicalTag tag) {
-        for (InflectionalGroup inflectionalGroup : inflectionalGroups) {
+        for (InflectionalGroup inflectionalGroup : inflectionalGroups()) {
             if (inflectionalGroup.containsTag(tag)) {
                 return true;
             }
@@ -609,7 +619,7 @@ public class MorphologicalParse implements Serializable {
 
     public int countTagOccurrences(MorphologicalTag tag) {
         int count = 0;
-        for (InflectionalGroup group : inflectionalGroups) {
+        for (InflectionalGroup group : inflectionalGroups()) {
             if (group.containsTag(tag)) {
                 count++;
             }
@@ -1260,9 +1270,9 @@ public class MorphologicalParse implements Serializable {
      * @return result {@link String}.
      */
     public String toString() {
-        StringBuilder result = new StringBuilder(root.getName() + "+" + inflectionalGroups.get(0).toString());
-        for (int i = 1; i < inflectionalGroups.size(); i++)
-            result.append("^DB+").append(inflectionalGroups.get(i).toString());
+        StringBuilder result = new StringBuilder(root.getName() + "+" + inflectionalGroups().get(0).toString());
+        for (int i = 1; i < inflectionalGroups().size(); i++)
+            result.append("^DB+").append(inflectionalGroups().get(i).toString());
         return result.toString();
     }
 
@@ -95,11 +95,24 @@ public class MorphotacticEngine {
      * @return Formation with added 'a' or 'e' character.
      */
     public static String resolveA(TxtWord root, String formation, boolean rootWord, String formationToCheck) {
+        return resolveA(root, formation, rootWord, Word.lastVowel(formationToCheck));
+    }
+
+    /**
+     * resolveA resolves the A metamorpheme as the resolveA method above, where the last vowel of the formationToCheck
+     * is given instead of the formationToCheck, so that it is not searched again for each metamorpheme.
+     * @param root Root of the word
+     * @param formation Formation is current status of the wordform in the current state of the finite state machine.
+     * @param rootWord True if the current word form is root form, false otherwise.
+     * @param lastVowel Last vowel of the formationToCheck, as returned by {@link Word#lastVowel(String)}.
+     * @return Formation with added 'a' or 'e' character.
+     */
+    public static String resolveA(TxtWord root, String formation, boolean rootWord, char lastVowel) {
         if (root.isAbbreviation()) {
             return formation + 'e';
         }
-        if (Word.lastVowel(formationToCheck) >= '0' && Word.lastVowel(formationToCheck) <= '9') {
-            switch (Word.lastVowel(formationToCheck)) {
+        if (lastVowel >= '0' && lastVowel <= '9') {
+            switch (lastVowel) {
                 case '6':
                 case '9':
                     //6'ya, 9'a
@@ -116,7 +129,7 @@ public class MorphotacticEngine {
                     return formation + 'e';
             }
         }
-        if (TurkishLanguage.isBackVowel(Word.lastVowel(formationToCheck))) {
+        if (TurkishLanguage.isBackVowel(lastVowel)) {
             if (root.notObeysVowelHarmonyDuringAgglutination() && rootWord) {
                 //alkole, anormale
                 return formation + 'e';
@@ -125,7 +138,7 @@ public class MorphotacticEngine {
                 return formation + 'a';
             }
         }
-        if (TurkishLanguage.isFrontVowel(Word.lastVowel(formationToCheck))) {
+        if (TurkishLanguage.isFrontVowel(lastVowel)) {
             if (root.notObeysVowelHarmonyDuringAgglutination() && rootWord) {
                 //faika, halika
                 return formation + 'a';
@@ -198,6 +211,23 @@ public class MorphotacticEngine {
      * @return Formation with possibly last character dropped and 'ı', 'i', 'u' or 'ü' character added.
      */
     public static String resolveH(TxtWord root, String formation, boolean beginningOfSuffix, boolean specialCaseTenseSuffix, boolean rootWord, String formationToCheck) {
+        return resolveH(root, formation, beginningOfSuffix, specialCaseTenseSuffix, rootWord, formationToCheck, Word.lastVowel(formationToCheck));
+    }
+
+    /**
+     * resolveH resolves the H metamorpheme as the resolveH method above, where the last vowel of the formationToCheck
+     * is also given, so that it is not searched again for each metamorpheme.
+     * @param root Root of the word
+     * @param formation Formation is current status of the wordform in the current state of the finite state machine.
+     * @param beginningOfSuffix True if H appears in the beginning of the suffix, false otherwise.
+     * @param specialCaseTenseSuffix True if the suffix is 'Hyor', false otherwise.
+     * @param rootWord True if the current word form is root form, false otherwise.
+     * @param formationToCheck FormationToCheck is current status of the word form in the current state of the finite
+     *                         state machine except the apostrophe at the end if it exists.
+     * @param lastVowel Last vowel of the formationToCheck, as returned by {@link Word#lastVowel(String)}.
+     * @return Formation with possibly last character dropped and 'ı', 'i', 'u' or 'ü' character added.
+     */
+    public static String resolveH(TxtWord root, String formation, boolean beginningOfSuffix, boolean specialCaseTenseSuffix, boolean rootWord, String formationToCheck, char lastVowel) {
         String result;
         if (root.isAbbreviation())
             return formation + 'i';
@@ -221,16 +251,16 @@ public class MorphotacticEngine {
                 }
             }
         }
-        if (TurkishLanguage.isFrontRoundedVowel(Word.lastVowel(formationToCheck)) || (TurkishLanguage.isBackRoundedVowel(Word.lastVowel(formationToCheck)) && root.notObeysVowelHarmonyDuringAgglutination())) {
+        if (TurkishLanguage.isFrontRoundedVowel(lastVowel) || (TurkishLanguage.isBackRoundedVowel(lastVowel) && root.notObeysVowelHarmonyDuringAgglutination())) {
             return formation + 'ü';
         }
-        if ((TurkishLanguage.isFrontUnroundedVowel(Word.lastVowel(formationToCheck)) && (!root.notObeysVowelHarmonyDuringAgglutination() || !rootWord)) || ((Word.lastVowel(formationToCheck) == 'a' || Word.lastVowel(formationToCheck) == 'â') && root.notObeysVowelHarmonyDuringAgglutination())) {
+        if ((TurkishLanguage.isFrontUnroundedVowel(lastVowel) && (!root.notObeysVowelHarmonyDuringAgglutination() || !rootWord)) || ((lastVowel == 'a' || lastVowel == 'â') && root.notObeysVowelHarmonyDuringAgglutination())) {
             return formation + 'i';
         }
-        if (TurkishLanguage.isBackRoundedVowel(Word.lastVowel(formationToCheck))) {
+        if (TurkishLanguage.isBackRoundedVowel(lastVowel)) {
             return formation + 'u';
         }
-        if (TurkishLanguage.isBackUnroundedVowel(Word.lastVowel(formationToCheck)) || (TurkishLanguage.isFrontUnroundedVowel(Word.lastVowel(formationToCheck)) && root.notObeysVowelHarmonyDuringAgglutination())) {
+        if (TurkishLanguage.isBackUnroundedVowel(lastVowel) || (TurkishLanguage.isFrontUnroundedVowel(lastVowel) && root.notObeysVowelHarmonyDuringAgglutination())) {
             return formation + 'ı';
         }
         if (root.isNumeral() || root.isFraction() || root.isReal()) {
@@ -252,12 +282,45 @@ public class MorphotacticEngine {
                 }
             }
         }
-        if (Word.lastVowel(formationToCheck) == '0'){
+        if (lastVowel == '0'){
             return formation + 'i';
         }
         return formation;
     }
 
+    /**
+     * The lastVowel method returns the last vowel of the given word form. Unlike {@link Word#lastVowel(String)}, it
+     * returns 0 if the word form has no vowels, in which case {@link Word#lastVowel(String)} is to be used.
+     *
+     * @param form Word form.
+     * @return Last vowel of the word form, 0 if it has no vowels.
+     */
+    public static char lastVowel(String form) {
+        for (int i = form.length() - 1; i >= 0; i--) {
+            if (TurkishLanguage.isVowel(form.charAt(i))) {
+                return form.charAt(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The lastVowel method returns the last vowel of a word form after the given characters are appended to it.
+     *
+     * @param lastVowel Last vowel of the word form before the characters are appended, 0 if it has no vowels.
+     * @param form      Word form after the characters are appended.
+     * @param start     Index of the first appended character in the word form.
+     * @return Last vowel of the word form, 0 if it has no vowels.
+     */
+    public static char lastVowel(char lastVowel, String form, int start) {
+        for (int i = start; i < form.length(); i++) {
+            if (TurkishLanguage.isVowel(form.charAt(i))) {
+                lastVowel = form.charAt(i);
+            }
+        }
+        return lastVowel;
+    }
+
     /**
      * The resolveC method takes a {@link String} formation as an input. If the last phoneme is on of the "çfhkpsşt", it
      * concatenates given formation with 'ç', if not it concatenates given formation with 'c'.
@@ -0,0 +1,56 @@
+package MorphologicalAnalysis;
+
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelAnalysisTask extends RecursiveAction {
+
+    private static final int THRESHOLD = 16;
+    private final FsmMorphologicalAnalyzer analyzer;
+    private final String[] words;
+    private final FsmParseList[] result;
+    private final boolean robust;
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructor of ParallelAnalysisTask class. The task analyzes the words in the range [from, to) and writes the
+     * analysis of the i'th word to the i'th position of the result array, so that the order of the words is preserved
+     * independent of the order the subtasks finish.
+     *
+     * @param analyzer Shared morphological analyzer.
+     * @param words    Words to be analyzed.
+     * @param result   Array that will hold the analyses of the words.
+     * @param robust   If true, robustMorphologicalAnalysis is used, otherwise morphologicalAnalysis is used.
+     * @param from     Index of the first word to be analyzed.
+     * @param to       Index after the last word to be analyzed.
+     */
+    public ParallelAnalysisTask(FsmMorphologicalAnalyzer analyzer, String[] words, FsmParseList[] result, boolean robust, int from, int to) {
+        this.analyzer = analyzer;
+        this.words = words;
+        this.result = result;
+        this.robust = robust;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * If the range contains at most THRESHOLD words, the words are analyzed one after another. Otherwise, the range is
+     * split into two halves and both halves are analyzed in parallel.
+     */
+    @Override
+    protected void compute() {
+        if (to - from <= THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                if (robust) {
+                    result[i] = analyzer.robustMorphologicalAnalysis(words[i]);
+                } else {
+                    result[i] = analyzer.morphologicalAnalysis(words[i]);
+                }
+            }
+        } else {
+            int middle = (from + to) / 2;
+            invokeAll(new ParallelAnalysisTask(analyzer, words, result, robust, from, middle),
+                    new ParallelAnalysisTask(analyzer, words, result, robust, middle, to));
+        }
+    }
+}
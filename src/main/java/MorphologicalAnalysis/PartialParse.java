@@ -0,0 +1,346 @@
+package MorphologicalAnalysis;
+
+import Dictionary.TxtWord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PartialParse {
+
+    private final PartialParse parent;
+    private final FsmParse initialParse;
+    private final TxtWord root;
+    private final Transition transition;
+    private final State state;
+    private final String surfaceForm;
+    private final int length;
+    private final boolean inZeroClosure;
+    private String header = null;
+    private int transitionListHash;
+    private boolean hashed = false;
+    private int lastVowel = -1;
+    private PartialParse nextWithSameSurfaceForm = null;
+    private ArrayList<PartialParse> alternatives = null;
+    private List<PartialParse> paths = null;
+
+    /**
+     * Constructor of PartialParse class for the beginning of a search. The partial parse holds the initial parse of
+     * a root, which starts from one of the start states of the finite state machine.
+     *
+     * @param initialParse Initial parse of the root.
+     */
+    public PartialParse(FsmParse initialParse) {
+        this.parent = null;
+        this.initialParse = initialParse;
+        this.root = (TxtWord) initialParse.getWord();
+        this.transition = null;
+        this.state = initialParse.getFinalSuffix();
+        this.surfaceForm = initialParse.getSurfaceForm();
+        this.length = 0;
+        this.inZeroClosure = false;
+    }
+
+    /**
+     * Constructor of PartialParse class for a parse extended with a transition. Instead of copying the suffixes of the
+     * parent, the new partial parse only keeps the transition, the surface form after the transition and a pointer to
+     * its parent; the suffixes before the transition are shared with the parent and all its other children.
+     *
+     * @param parent      Partial parse before the transition.
+     * @param transition  Transition made.
+     * @param surfaceForm Surface form after the transition.
+     */
+    public PartialParse(PartialParse parent, Transition transition, String surfaceForm) {
+        this.parent = parent;
+        this.initialParse = parent.initialParse;
+        this.root = parent.root;
+        this.transition = transition;
+        this.state = transition.toState();
+        this.surfaceForm = surfaceForm;
+        this.length = parent.length + 1;
+        this.inZeroClosure = transition.isZero();
+    }
+
+    /**
+     * Constructor of PartialParse class for the beginning of a search from the configuration of another partial parse.
+     * The new partial parse has the state, surface form, root and start state of the given one, but not its suffixes,
+     * so that the paths found by the search only contain the transitions made after the configuration. It is in a zero
+     * closure if the given one is.
+     *
+     * @param configuration Partial parse whose configuration starts the search.
+     */
+    public PartialParse(PartialParse configuration) {
+        this.parent = null;
+        this.initialParse = configuration.initialParse;
+        this.root = configuration.root;
+        this.transition = null;
+        this.state = configuration.state;
+        this.surfaceForm = configuration.surfaceForm;
+        this.length = 0;
+        this.lastVowel = configuration.lastVowel;
+        this.inZeroClosure = configuration.inZeroClosure;
+    }
+
+    /**
+     * Checks if the partial parse is reached by a zero transition. Such a partial parse is added together with the
+     * zero closure of the partial parse that started the closure, so its own zero transitions are already made.
+     *
+     * @return True if the last transition of the partial parse is a zero transition, false otherwise.
+     */
+    public boolean isInZeroClosure() {
+        return inZeroClosure;
+    }
+
+    /**
+     * Accessor for the partial parse before the last transition.
+     *
+     * @return Partial parse before the last transition, null if this partial parse starts the search.
+     */
+    public PartialParse getParent() {
+        return parent;
+    }
+
+    /**
+     * Accessor for the last transition of the parse.
+     *
+     * @return Last transition of the parse, null if this partial parse starts the search.
+     */
+    public Transition getTransition() {
+        return transition;
+    }
+
+    /**
+     * Accessor for the root of the parse.
+     *
+     * @return Root of the parse.
+     */
+    public TxtWord getRoot() {
+        return root;
+    }
+
+    /**
+     * Accessor for the last state of the parse.
+     *
+     * @return Last state of the parse.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Accessor for the start state of the parse.
+     *
+     * @return Start state of the parse.
+     */
+    public State getStartState() {
+        return initialParse.getStartState();
+    }
+
+    /**
+     * Accessor for the surface form of the parse.
+     *
+     * @return Surface form of the parse.
+     */
+    public String getSurfaceForm() {
+        return surfaceForm;
+    }
+
+    /**
+     * Returns the last vowel of the surface form, which is computed once and used by all transitions from this partial
+     * parse.
+     *
+     * @return Last vowel of the surface form, 0 if it has no vowels.
+     */
+    public char getLastVowel() {
+        if (lastVowel == -1) {
+            lastVowel = MorphotacticEngine.lastVowel(surfaceForm);
+        }
+        return (char) lastVowel;
+    }
+
+    /**
+     * Returns the hash code of the transition list of the parse, which is equal to the hash code of the string returned
+     * by the transitionList method of the {@link FsmParse} built from this partial parse. The hash is computed from the
+     * hash of the parent, so that the partial parses sharing their suffixes also share the computation, and no string
+     * is built except the transition list of the initial parse.
+     *
+     * @return Hash code of the transition list of the parse.
+     */
+    public int transitionListHash() {
+        if (!hashed) {
+            if (parent == null) {
+                transitionListHash = header().hashCode();
+            } else {
+                int hash = parent.transitionListHash();
+                String name = transition.with();
+                if (name != null) {
+                    if (!name.startsWith("^")) {
+                        hash = 31 * hash + '+';
+                    }
+                    for (int i = 0; i < name.length(); i++) {
+                        hash = 31 * hash + name.charAt(i);
+                    }
+                }
+                transitionListHash = hash;
+            }
+            hashed = true;
+        }
+        return transitionListHash;
+    }
+
+    /**
+     * Returns the transition list of the initial parse, which is the beginning of the transition list of the parse.
+     *
+     * @return Transition list of the initial parse.
+     */
+    private String header() {
+        if (header == null) {
+            header = parent == null ? initialParse.transitionList() : parent.header();
+        }
+        return header;
+    }
+
+    /**
+     * Builds the transition list of the parse without building the {@link FsmParse}. The result is the same as the
+     * transitionList method of the {@link FsmParse} built from this partial parse.
+     *
+     * @return Transition list of the parse.
+     */
+    public String transitionList() {
+        StringBuilder result = new StringBuilder();
+        appendTransitionList(result);
+        return result.toString();
+    }
+
+    /**
+     * Appends the transition list of the parent and then the transition of this partial parse to the given result.
+     *
+     * @param result Transition list built so far.
+     */
+    private void appendTransitionList(StringBuilder result) {
+        if (parent == null) {
+            result.append(header());
+        } else {
+            parent.appendTransitionList(result);
+            String name = transition.with();
+            if (name != null) {
+                if (!name.startsWith("^")) {
+                    result.append("+");
+                }
+                result.append(name);
+            }
+        }
+    }
+
+    /**
+     * Checks if the given partial parse is in the same configuration as this one. Two partial parses in the same state,
+     * with the same surface form, root and start state have the same transitions from then on, therefore only one of
+     * them needs to be extended in a search.
+     *
+     * @param partialParse Partial parse to compare.
+     * @return True if both partial parses have the same state, surface form, root and start state.
+     */
+    public boolean sameConfiguration(PartialParse partialParse) {
+        return state == partialParse.state && root == partialParse.root && getStartState() == partialParse.getStartState() && surfaceForm.equals(partialParse.surfaceForm);
+    }
+
+    /**
+     * Accessor for the next partial parse with the same surface form in the configurations of a search.
+     *
+     * @return Next partial parse with the same surface form, null if there is none.
+     */
+    public PartialParse getNextWithSameSurfaceForm() {
+        return nextWithSameSurfaceForm;
+    }
+
+    /**
+     * Mutator for the next partial parse with the same surface form in the configurations of a search.
+     *
+     * @param nextWithSameSurfaceForm Next partial parse with the same surface form.
+     */
+    public void setNextWithSameSurfaceForm(PartialParse nextWithSameSurfaceForm) {
+        this.nextWithSameSurfaceForm = nextWithSameSurfaceForm;
+    }
+
+    /**
+     * Records a partial parse in the same configuration as this one, which is not extended itself. Its path is
+     * still one of the paths of this configuration.
+     *
+     * @param alternative Partial parse in the same configuration.
+     */
+    public void addAlternative(PartialParse alternative) {
+        if (alternatives == null) {
+            alternatives = new ArrayList<>(1);
+        }
+        alternatives.add(alternative);
+    }
+
+    /**
+     * Returns all paths reaching the configuration of this partial parse, as partial parses ending in this
+     * configuration. The paths through the alternatives of this partial parse and of its ancestors are built from the
+     * paths of their parents, and the paths of each configuration are found only once. The paths should be asked only
+     * after the search is over, when all alternatives are known.
+     *
+     * @return Partial parses of all paths to this configuration.
+     */
+    public List<PartialParse> paths() {
+        if (paths == null) {
+            if (alternatives == null && (parent == null || parent.paths().size() == 1)) {
+                paths = Collections.singletonList(this);
+            } else {
+                ArrayList<PartialParse> result = new ArrayList<>();
+                addPaths(this, result);
+                if (alternatives != null) {
+                    for (PartialParse alternative : alternatives) {
+                        addPaths(alternative, result);
+                    }
+                }
+                paths = result;
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Adds the paths ending with the last transition of the given partial parse, one for each path of its parent.
+     *
+     * @param partialParse Partial parse whose last transition ends the paths.
+     * @param result       List to which the paths are added.
+     */
+    private static void addPaths(PartialParse partialParse, ArrayList<PartialParse> result) {
+        if (partialParse.parent == null) {
+            result.add(partialParse);
+            return;
+        }
+        for (PartialParse parentPath : partialParse.parent.paths()) {
+            if (parentPath == partialParse.parent) {
+                result.add(partialParse);
+            } else {
+                result.add(new PartialParse(parentPath, partialParse.transition, partialParse.surfaceForm));
+            }
+        }
+    }
+
+    /**
+     * Builds the {@link FsmParse} of the partial parse. The initial parse is cloned and the transitions from the
+     * initial parse to this partial parse are added to the clone in order, in the same way the search added them
+     * before the partial parses were shared.
+     *
+     * @return Parse with all suffixes of the partial parse.
+     */
+    public FsmParse toFsmParse() {
+        PartialParse[] path = new PartialParse[length];
+        PartialParse current = this;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = current;
+            current = current.parent;
+        }
+        FsmParse fsmParse = initialParse.clone();
+        for (PartialParse partialParse : path) {
+            Transition currentTransition = partialParse.transition;
+            fsmParse.addSuffix(currentTransition.toState(), partialParse.surfaceForm, currentTransition.with(), currentTransition.toString(), currentTransition.toPos());
+            fsmParse.setAgreement(currentTransition.with());
+        }
+        return fsmParse;
+    }
+}
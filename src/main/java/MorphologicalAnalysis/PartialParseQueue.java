@@ -0,0 +1,52 @@
+package MorphologicalAnalysis;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+public class PartialParseQueue {
+
+    private final ArrayDeque<PartialParse> queue = new ArrayDeque<>();
+    private final HashMap<String, PartialParse> configurations = new HashMap<>();
+
+    /**
+     * Adds a partial parse to the queue, unless a partial parse in the same configuration has been added before. In
+     * that case, the partial parse is recorded as an alternative of the earlier one, so that only one of them is
+     * extended while the path of each is kept. The configurations are grouped by their surface forms, and the partial
+     * parses with the same surface form are linked to each other.
+     *
+     * @param partialParse Partial parse to add.
+     * @return True if the partial parse is in a new configuration and is added to the queue, false otherwise.
+     */
+    public boolean add(PartialParse partialParse) {
+        PartialParse first = configurations.get(partialParse.getSurfaceForm());
+        for (PartialParse current = first; current != null; current = current.getNextWithSameSurfaceForm()) {
+            if (current.sameConfiguration(partialParse)) {
+                current.addAlternative(partialParse);
+                return false;
+            }
+        }
+        partialParse.setNextWithSameSurfaceForm(first);
+        configurations.put(partialParse.getSurfaceForm(), partialParse);
+        queue.add(partialParse);
+        return true;
+    }
+
+    /**
+     * Removes the first partial parse from the queue.
+     *
+     * @return First partial parse in the queue.
+     */
+    public PartialParse remove() {
+        return queue.remove();
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return True if there is no partial parse to extend, false otherwise.
+     */
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+}
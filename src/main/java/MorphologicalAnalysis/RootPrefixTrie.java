@@ -0,0 +1,355 @@
+package MorphologicalAnalysis;
+
+import Dictionary.Trie.Trie;
+import Dictionary.TxtDictionary;
+import Dictionary.TxtWord;
+import Dictionary.Word;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.function.Predicate;
+
+public class RootPrefixTrie {
+
+    private static final TxtWord[] NO_WORDS = new TxtWord[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] CHANGED_LAST_CHARACTERS = {'b', 'c', 'ç', 'd', 'g', 'ğ', 'k', 'p', 't', 'i', 'ı'};
+    private final Trie dictionaryTrie;
+    private final Node rootNode = new Node('\u0000');
+
+    /**
+     * A node of the trie. The words of a node are the roots whose shortest key on the path of the node ends at the
+     * node, so that a root is visited only once along a surface form. A surface form passing through a node marked as
+     * unconfirmed may have roots whose keys are not in this trie, and is answered by the dictionary trie. The children
+     * are sorted by their labels.
+     */
+    private static class Node {
+        final char label;
+        TxtWord[] words = NO_WORDS;
+        Node[] children = NO_CHILDREN;
+        boolean unconfirmed = false;
+
+        Node(char label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Constructor of RootPrefixTrie class. The dictionary trie only returns the roots of a surface form as a new set,
+     * therefore this trie is built once with the keys of the dictionary roots, after which the surface forms are walked
+     * without creating any collection. The dictionary trie can not list its keys, so the keys of a root are found among
+     * the forms of its name that differ from the name in its last two characters, as the softened, vowel dropped or
+     * duplicated forms prepareTrie inserts, together with bana and sana. A candidate is kept only if the dictionary
+     * trie returns the root for it but not for the candidate without its last character, so that every key kept is a
+     * shortest key of the dictionary trie.
+     * <p>
+     * A root is confirmed if each key its flags call for has a kept key as its prefix. The keys of a portmanteau root,
+     * and of a root that is not confirmed, may not have been found, therefore the node of the name without its last
+     * two characters is marked as unconfirmed, and the surface forms passing through it are answered by the dictionary
+     * trie. This relies on the keys of a root keeping its name except for its last two characters, as all forms above
+     * do, so that a surface form with a key of the root passes through the marked node.
+     *
+     * @param dictionary     Dictionary of the roots.
+     * @param dictionaryTrie Trie of the dictionary roots, prepared from the dictionary.
+     */
+    public RootPrefixTrie(TxtDictionary dictionary, Trie dictionaryTrie) {
+        this.dictionaryTrie = dictionaryTrie;
+        HashMap<String, Boolean> prefixContains = new HashMap<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            TxtWord word = (TxtWord) dictionary.getWord(i);
+            String name = TokenClassifier.toLowerCase(word.getName());
+            ArrayList<String> expectedKeys = expectedKeys(word, name);
+            LinkedHashSet<String> candidates = candidateKeys(name);
+            if (expectedKeys != null) {
+                candidates.addAll(expectedKeys);
+            }
+            ArrayList<String> keys = new ArrayList<>();
+            prefixContains.clear();
+            for (String key : candidates) {
+                if (!key.isEmpty() && dictionaryTrie.getWordsWithPrefix(key).contains(word)) {
+                    String prefix = key.substring(0, key.length() - 1);
+                    if (!prefixContains.computeIfAbsent(prefix, p -> dictionaryTrie.getWordsWithPrefix(p).contains(word))) {
+                        addWord(key, word);
+                        keys.add(key);
+                    }
+                }
+            }
+            if (expectedKeys == null || !confirmed(expectedKeys, keys)) {
+                markUnconfirmed(name.substring(0, Math.max(1, name.length() - 2)));
+            }
+        }
+    }
+
+    /**
+     * Returns the keys that the flags of the root call for: its name, the softened form, the form with the last vowel
+     * dropped, the form with the last vowel changed to i, the form with the last consonant duplicated, and bana and
+     * sana for ben and sen.
+     *
+     * @param word Dictionary root.
+     * @param name Lower-cased name of the root.
+     * @return Keys the root must have, null for a portmanteau root whose keys can not be derived from its flags.
+     */
+    private static ArrayList<String> expectedKeys(TxtWord word, String name) {
+        if (word.isPortmanteau() || word.isPortmanteauEndingWithSI() || word.isPortmanteauFacedVowelEllipsis() || word.isPortmanteauFacedSoftening()) {
+            return null;
+        }
+        ArrayList<String> keys = new ArrayList<>();
+        keys.add(name);
+        if (name.equals("ben")) {
+            keys.add("bana");
+        }
+        if (name.equals("sen")) {
+            keys.add("sana");
+        }
+        if (name.length() > 1) {
+            char last = name.charAt(name.length() - 1);
+            String stem = name.substring(0, name.length() - 1);
+            char softened = softened(stem, last);
+            boolean softens = word.rootSoftenDuringSuffixation() || word.nounSoftenDuringSuffixation() || word.verbSoftenDuringSuffixation() || word.rootSoftenAndNotSoftenDuringSuffixation();
+            if (softens && softened != last) {
+                keys.add(stem + softened);
+            }
+            if (word.endingKChangesIntoG() && last == 'k') {
+                keys.add(stem + 'g');
+            }
+            if (word.vowelEChangesToIDuringYSuffixation() || word.vowelAChangesToIDuringYSuffixation()) {
+                keys.add(stem + 'i');
+            }
+            if (word.duplicatesDuringSuffixation() || word.duplicatesAndNotDuplicatesDuringSuffixation()) {
+                keys.add(name + last);
+            }
+            if (name.length() > 2 && (word.lastIdropsDuringSuffixation() || word.lastIdropsDuringPassiveSuffixation() || word.lastIDropsAndNotDropDuringSuffixation())) {
+                keys.add(name.substring(0, name.length() - 2) + last);
+                if (softens && softened != last) {
+                    keys.add(name.substring(0, name.length() - 2) + softened);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the softened form of the last consonant of a name.
+     *
+     * @param stem Name without its last character.
+     * @param last Last character of the name.
+     * @return Softened form of the last character, the last character itself if it does not soften.
+     */
+    private static char softened(String stem, char last) {
+        switch (last) {
+            case 'p':
+                return 'b';
+            case 'ç':
+                return 'c';
+            case 't':
+                return 'd';
+            case 'k':
+                return stem.endsWith("n") ? 'g' : 'ğ';
+            case 'g':
+                return 'ğ';
+            default:
+                return last;
+        }
+    }
+
+    /**
+     * Returns the forms of the name of the root that may be its keys in the dictionary trie.
+     *
+     * @param name Lower-cased name of the root.
+     * @return Candidate keys of the root.
+     */
+    private static LinkedHashSet<String> candidateKeys(String name) {
+        LinkedHashSet<String> keys = new LinkedHashSet<>();
+        keys.add(name);
+        if (name.length() > 1) {
+            char last = name.charAt(name.length() - 1);
+            keys.add(name + last);
+            String stem = name.substring(0, name.length() - 1);
+            keys.add(stem);
+            for (char changed : CHANGED_LAST_CHARACTERS) {
+                keys.add(stem + changed);
+            }
+            if (name.length() > 2) {
+                stem = name.substring(0, name.length() - 2);
+                keys.add(stem);
+                keys.add(stem + last);
+                keys.add(stem + last + name.charAt(name.length() - 2));
+                for (char changed : CHANGED_LAST_CHARACTERS) {
+                    keys.add(stem + changed);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Checks if each expected key of a root has a kept key as its prefix, that is, if the dictionary trie returns the
+     * root for the expected key because of a key found in this trie.
+     *
+     * @param expectedKeys Keys the flags of the root call for.
+     * @param keys         Keys of the root kept in this trie.
+     * @return True if all expected keys are covered by the kept keys, false otherwise.
+     */
+    private static boolean confirmed(ArrayList<String> expectedKeys, ArrayList<String> keys) {
+        for (String expectedKey : expectedKeys) {
+            boolean covered = false;
+            for (String key : keys) {
+                if (expectedKey.startsWith(key)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks the node of the given prefix as unconfirmed, creating the nodes on the path of the prefix.
+     *
+     * @param prefix Prefix shared by all keys of an unconfirmed root.
+     */
+    private void markUnconfirmed(String prefix) {
+        node(prefix).unconfirmed = true;
+    }
+
+    /**
+     * Returns the node of the given key, creating the nodes on the path of the key.
+     *
+     * @param key Key of the node.
+     * @return Node of the key.
+     */
+    private Node node(String key) {
+        Node node = rootNode;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = child(node, key.charAt(i));
+            if (child == null) {
+                child = addChild(node, key.charAt(i));
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Adds the root to the node of the key, creating the nodes on the path of the key.
+     *
+     * @param key  Key of the root.
+     * @param word Root to add.
+     */
+    private void addWord(String key, TxtWord word) {
+        Node node = node(key);
+        TxtWord[] words = new TxtWord[node.words.length + 1];
+        System.arraycopy(node.words, 0, words, 0, node.words.length);
+        words[node.words.length] = word;
+        node.words = words;
+    }
+
+    /**
+     * Visits the roots which have a key that is a prefix of the given surface form. The roots are visited from the
+     * longest key to the shortest, so that the visitor can stop at the first root it accepts by returning false. If the
+     * path of the surface form passes through an unconfirmed node, the roots are visited in the order of the dictionary
+     * trie.
+     *
+     * @param surfaceForm Surface form, which is lower-cased as in the dictionary trie.
+     * @param visitor     Called for each root, returns false to stop the visit.
+     * @return False if the visitor stopped the visit, true otherwise.
+     */
+    public boolean forEachRoot(String surfaceForm, Predicate<TxtWord> visitor) {
+        surfaceForm = TokenClassifier.toLowerCase(surfaceForm);
+        int result = visit(rootNode, surfaceForm, 0, visitor);
+        if (result >= 0) {
+            return result == 1;
+        }
+        for (Word word : dictionaryTrie.getWordsWithPrefix(surfaceForm)) {
+            if (!visitor.test((TxtWord) word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks the path of the surface form down from the given node until there is no child, and visits the roots on the
+     * way back up. Since the roots are visited only after the whole path is walked, nothing is visited if the path
+     * passes through an unconfirmed node.
+     *
+     * @param node        Current node.
+     * @param surfaceForm Lower-cased surface form.
+     * @param depth       Length of the prefix of the current node.
+     * @param visitor     Called for each root, returns false to stop the visit.
+     * @return 1 if all roots are visited, 0 if the visitor stopped the visit, -1 if the path passes through an
+     * unconfirmed node.
+     */
+    private static int visit(Node node, String surfaceForm, int depth, Predicate<TxtWord> visitor) {
+        if (node.unconfirmed) {
+            return -1;
+        }
+        if (depth < surfaceForm.length()) {
+            Node child = child(node, surfaceForm.charAt(depth));
+            if (child != null) {
+                int result = visit(child, surfaceForm, depth + 1, visitor);
+                if (result != 1) {
+                    return result;
+                }
+            }
+        }
+        for (TxtWord word : node.words) {
+            if (!visitor.test(word)) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Finds the child of a node with the given label by binary search.
+     *
+     * @param node  Parent node.
+     * @param label Label of the child.
+     * @return Child with the given label, null if there is none.
+     */
+    private static Node child(Node node, char label) {
+        Node[] children = node.children;
+        int low = 0, high = children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (children[middle].label < label) {
+                low = middle + 1;
+            } else {
+                if (children[middle].label > label) {
+                    high = middle - 1;
+                } else {
+                    return children[middle];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a child with the given label to a node, keeping the children sorted by their labels.
+     *
+     * @param node  Parent node.
+     * @param label Label of the child.
+     * @return Child added.
+     */
+    private static Node addChild(Node node, char label) {
+        Node child = new Node(label);
+        Node[] children = node.children;
+        Node[] newChildren = new Node[children.length + 1];
+        int position = 0;
+        while (position < children.length && children[position].label < label) {
+            newChildren[position] = children[position];
+            position++;
+        }
+        newChildren[position] = child;
+        System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+        node.children = newChildren;
+        return child;
+    }
+
+}
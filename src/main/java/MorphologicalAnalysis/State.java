@@ -6,7 +6,7 @@ public class State {
     private final boolean endState;
     private final String name;
     private final String pos;
-
+    private int index = -1;
 
     /**
      * First constructor of the {@link State} class which takes 3 parameters String name, boolean startState,
@@ -39,6 +39,24 @@ public class State {
         this.pos = pos;
     }
 
+    /**
+     * Getter for the index of the state in its finite state machine.
+     *
+     * @return Index of the state, -1 if the state is not added to a finite state machine.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Setter for the index of the state in its finite state machine.
+     *
+     * @param index Index of the state.
+     */
+    void setIndex(int index) {
+        this.index = index;
+    }
+
     /**
      * Getter for the name.
      *
@@ -57,6 +75,15 @@ public class State {
         return pos;
     }
 
+    /**
+     * The isStartState method returns startState's value.
+     *
+     * @return boolean startState.
+     */
+    public boolean isStartState() {
+        return startState;
+    }
+
     /**
      * The isEndState method returns endState's value.
      *
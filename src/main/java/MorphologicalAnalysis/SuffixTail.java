@@ -0,0 +1,149 @@
+package MorphologicalAnalysis;
+
+import Dictionary.TxtWord;
+import Dictionary.Word;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SuffixTail {
+
+    private static final int NOT_OBEYS_VOWEL_HARMONY = 1;
+    private static final int LAST_I_DROPS = 1 << 1;
+    private final Transition[][] transitions;
+    private final String[][] surfaceForms;
+
+    /**
+     * The key of a suffix tail. Once the stem is longer than the root by at least two characters, the transitions
+     * from a partial parse do not depend on the root itself, but only on a few of its flags, on the state and whether
+     * its zero closure is already added, on the last two vowels of the stem, and on the last two characters of the stem
+     * with the rest of the surface form, provided that the stem before its last two characters is the beginning of the
+     * surface form.
+     */
+    public static class Key {
+        private final State state;
+        private final boolean inZeroClosure;
+        private final int rootFlags;
+        private final char lastVowel;
+        private final char beforeLastVowel;
+        private final String tail;
+        private final int hash;
+
+        /**
+         * Constructor of the Key class.
+         *
+         * @param state         State of the partial parse.
+         * @param inZeroClosure True if the partial parse is reached by a zero transition.
+         * @param rootFlags     Flags of the root returned by the rootFlags method.
+         * @param stem          Surface form of the partial parse.
+         * @param surfaceForm   Surface form to be analyzed.
+         */
+        public Key(State state, boolean inZeroClosure, int rootFlags, String stem, String surfaceForm) {
+            this.state = state;
+            this.inZeroClosure = inZeroClosure;
+            this.rootFlags = rootFlags;
+            this.lastVowel = Word.lastVowel(stem);
+            this.beforeLastVowel = Word.beforeLastVowel(stem);
+            this.tail = stem.substring(stem.length() - 2) + surfaceForm.substring(stem.length() - 2);
+            this.hash = 31 * (31 * (31 * (31 * (2 * state.hashCode() + (inZeroClosure ? 1 : 0)) + rootFlags) + lastVowel) + beforeLastVowel) + tail.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return state == key.state && inZeroClosure == key.inZeroClosure && rootFlags == key.rootFlags && lastVowel == key.lastVowel && beforeLastVowel == key.beforeLastVowel && tail.equals(key.tail);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Constructor of SuffixTail class. The paths of the accepted partial parses of a search, which starts from a
+     * partial parse without suffixes, are stored as their transitions and the surface forms after each transition.
+     * The first prefixLength characters of the surface forms are the same for all partial parses with the same key,
+     * therefore they are not stored.
+     *
+     * @param acceptedParses Accepted partial parses of the search.
+     * @param prefixLength   Length of the common beginning of the surface forms.
+     */
+    public SuffixTail(ArrayList<PartialParse> acceptedParses, int prefixLength) {
+        ArrayList<PartialParse> paths = new ArrayList<>();
+        for (PartialParse acceptedParse : acceptedParses) {
+            paths.addAll(acceptedParse.paths());
+        }
+        transitions = new Transition[paths.size()][];
+        surfaceForms = new String[paths.size()][];
+        for (int i = 0; i < paths.size(); i++) {
+            int length = 0;
+            for (PartialParse current = paths.get(i); current.getParent() != null; current = current.getParent()) {
+                length++;
+            }
+            transitions[i] = new Transition[length];
+            surfaceForms[i] = new String[length];
+            PartialParse current = paths.get(i);
+            for (int j = length - 1; j >= 0; j--) {
+                transitions[i][j] = current.getTransition();
+                surfaceForms[i][j] = current.getSurfaceForm().substring(prefixLength);
+                current = current.getParent();
+            }
+        }
+    }
+
+    /**
+     * Returns the flags of the root that the transitions after the root depend on, or -1 if they also depend on the
+     * name of the root, as in the numbers and the abbreviations.
+     *
+     * @param root Root of the partial parses.
+     * @return Flags of the root, -1 if the suffix tails of the root can not be shared.
+     */
+    public static int rootFlags(TxtWord root) {
+        if (root.isAbbreviation() || root.isNumeral() || root.isReal() || root.isFraction() || root.isTime() || root.isDate() || root.isPercent() || root.isRange()) {
+            return -1;
+        }
+        String name = root.getName();
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= '0' && name.charAt(i) <= '9') {
+                return -1;
+            }
+        }
+        return (root.notObeysVowelHarmonyDuringAgglutination() ? NOT_OBEYS_VOWEL_HARMONY : 0) | (root.lastIdropsDuringSuffixation() ? LAST_I_DROPS : 0);
+    }
+
+    /**
+     * Checks if no path of the suffix tail reaches the surface form.
+     *
+     * @return True if the suffix tail has no paths, false otherwise.
+     */
+    public boolean isEmpty() {
+        return transitions.length == 0;
+    }
+
+    /**
+     * Adds the paths of the suffix tail to the given partial parse, and the partial parses at the ends of the paths
+     * to the accepted partial parses.
+     *
+     * @param partialParse   Partial parse with the key of the suffix tail.
+     * @param surfaceForm    Surface form to be analyzed.
+     * @param acceptedParses List to which the accepted partial parses are added.
+     */
+    public void addPaths(PartialParse partialParse, String surfaceForm, List<PartialParse> acceptedParses) {
+        String prefix = surfaceForm.substring(0, partialParse.getSurfaceForm().length() - 2);
+        for (int i = 0; i < transitions.length; i++) {
+            PartialParse current = partialParse;
+            for (int j = 0; j < transitions[i].length; j++) {
+                current = new PartialParse(current, transitions[i][j], prefix + surfaceForms[i][j]);
+            }
+            acceptedParses.add(current);
+        }
+    }
+
+}
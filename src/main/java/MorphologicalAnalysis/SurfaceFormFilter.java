@@ -0,0 +1,201 @@
+package MorphologicalAnalysis;
+
+import Dictionary.TxtDictionary;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+public class SurfaceFormFilter {
+
+    private static final int MAGIC = 0x46534D42;
+    private static final int VERSION = 1;
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int maximumLength;
+
+    /**
+     * Constructor of SurfaceFormFilter class. The filter is a Bloom filter of the surface forms that have at most
+     * maximumLength characters. The number of bits and hash functions are chosen so that a surface form which is not
+     * in the filter is reported to be in the filter with the given probability.
+     *
+     * @param expectedCount     Number of surface forms to be added.
+     * @param falsePositiveRate Target probability of a false positive, between 0 and 1.
+     * @param maximumLength     Length of the longest surface form the filter is built for.
+     */
+    public SurfaceFormFilter(int expectedCount, double falsePositiveRate, int maximumLength) {
+        long optimalBits = (long) Math.ceil(-Math.max(expectedCount, 1) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = new long[(int) Math.max((optimalBits + 63) / 64, 1)];
+        bitCount = 64L * bits.length;
+        hashCount = (int) Math.max(Math.round((double) bitCount / Math.max(expectedCount, 1) * Math.log(2)), 1);
+        this.maximumLength = maximumLength;
+    }
+
+    /**
+     * Constructor of SurfaceFormFilter class for a filter read from a file.
+     *
+     * @param bits          Bits of the filter.
+     * @param hashCount     Number of hash functions.
+     * @param maximumLength Length of the longest surface form the filter is built for.
+     */
+    private SurfaceFormFilter(long[] bits, int hashCount, int maximumLength) {
+        this.bits = bits;
+        this.bitCount = 64L * bits.length;
+        this.hashCount = hashCount;
+        this.maximumLength = maximumLength;
+    }
+
+    /**
+     * The hash method computes a 64-bit FNV-1a hash of the given surface form.
+     *
+     * @param surfaceForm Surface form to hash.
+     * @return Hash of the surface form.
+     */
+    private static long hash(String surfaceForm) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < surfaceForm.length(); i++) {
+            hash ^= surfaceForm.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the index of the bit of the given hash function. The indexes are computed with double hashing, where the
+     * second hash is obtained by mixing the first one.
+     *
+     * @param hash  Hash of the surface form.
+     * @param step  Odd second hash of the surface form.
+     * @param index Index of the hash function.
+     * @return Index of the bit.
+     */
+    private long bitIndex(long hash, long step, int index) {
+        return Long.remainderUnsigned(hash + index * step, bitCount);
+    }
+
+    /**
+     * Returns the second hash used in double hashing, which is odd so that it is never zero.
+     *
+     * @param hash Hash of the surface form.
+     * @return Second hash of the surface form.
+     */
+    private static long step(long hash) {
+        return Long.rotateLeft(hash * 0x9e3779b97f4a7c15L, 31) | 1;
+    }
+
+    /**
+     * Adds a surface form to the filter.
+     *
+     * @param surfaceForm Surface form to add.
+     */
+    public void add(String surfaceForm) {
+        long hash = hash(surfaceForm);
+        long step = step(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = bitIndex(hash, step, i);
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    /**
+     * Adds the given surface forms to the filter.
+     *
+     * @param surfaceForms Surface forms to add.
+     */
+    public void addAll(Collection<String> surfaceForms) {
+        for (String surfaceForm : surfaceForms) {
+            add(surfaceForm);
+        }
+    }
+
+    /**
+     * Checks if the given surface form may be in the filter. A surface form longer than the maximum length of the
+     * filter is never excluded, since the filter does not hold such surface forms.
+     *
+     * @param surfaceForm Surface form to check.
+     * @return False if the surface form is certainly not in the filter, true otherwise.
+     */
+    public boolean mightContain(String surfaceForm) {
+        if (surfaceForm.length() > maximumLength) {
+            return true;
+        }
+        long hash = hash(surfaceForm);
+        long step = step(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = bitIndex(hash, step, i);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Accessor for the maximum length.
+     *
+     * @return Length of the longest surface form the filter is built for.
+     */
+    public int getMaximumLength() {
+        return maximumLength;
+    }
+
+    /**
+     * Saves the filter to a file. The file starts with the versions of the finite state machine and the dictionary,
+     * followed by the maximum length, the number of hash functions and the bits of the filter.
+     *
+     * @param fileName           Name of the filter file.
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param dictionary         Dictionary of the analyzer.
+     * @throws IOException If the file can not be written.
+     */
+    public void save(String fileName, FiniteStateMachine finiteStateMachine, TxtDictionary dictionary) throws IOException {
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeLong(CacheSnapshot.fingerprint(finiteStateMachine));
+            outputStream.writeLong(CacheSnapshot.fingerprint(dictionary));
+            outputStream.writeInt(maximumLength);
+            outputStream.writeInt(hashCount);
+            outputStream.writeInt(bits.length);
+            for (long word : bits) {
+                outputStream.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Loads a filter saved by the save method. If the file is not a filter, or its finite state machine or dictionary
+     * version is different from the analyzer's, nothing is loaded.
+     *
+     * @param fileName           Name of the filter file.
+     * @param finiteStateMachine Finite state machine of the analyzer.
+     * @param dictionary         Dictionary of the analyzer.
+     * @return Loaded filter, null if the file can not be loaded.
+     */
+    public static SurfaceFormFilter load(String fileName, FiniteStateMachine finiteStateMachine, TxtDictionary dictionary) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            if (buffer.getLong() != CacheSnapshot.fingerprint(finiteStateMachine) || buffer.getLong() != CacheSnapshot.fingerprint(dictionary)) {
+                return null;
+            }
+            int maximumLength = buffer.getInt();
+            int hashCount = buffer.getInt();
+            int longCount = buffer.getInt();
+            if (hashCount <= 0 || longCount <= 0 || longCount != buffer.remaining() / 8 || buffer.remaining() % 8 != 0) {
+                return null;
+            }
+            long[] bits = new long[longCount];
+            buffer.asLongBuffer().get(bits);
+            return new SurfaceFormFilter(bits, hashCount, maximumLength);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
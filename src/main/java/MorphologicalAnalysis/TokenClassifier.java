@@ -0,0 +1,328 @@
+package MorphologicalAnalysis;
+
+import java.util.Locale;
+
+public class TokenClassifier {
+
+    private static final Locale TURKISH = new Locale("tr");
+    private static final int MAXIMUM_GROUPS = 4;
+    private static final int MAXIMUM_DIGIT_COUNT = 0xFFFF;
+    private static final char FIRST_COMBINING_MARK = '\u0300';
+    private final TokenType tokenType;
+    private final String lowerCased;
+
+    /**
+     * Constructor of TokenClassifier class. The token is scanned only once, in which both its type and its Turkish
+     * lower-cased form are found.
+     *
+     * @param surfaceForm Token to classify.
+     */
+    public TokenClassifier(String surfaceForm) {
+        this(surfaceForm, true);
+    }
+
+    /**
+     * Scans the token once. A number like token is read as an optional sign or percent character, followed by at most
+     * four groups of digits, separated by one of the '.', '/', ':', '-' or escaped slash separators. Digit counts of the
+     * groups are packed into 16 bits each and the separators into 8 bits each, so that no arrays are allocated for them. At
+     * the same time each character is lower-cased, where I becomes ı and İ becomes i. If the token contains a combining
+     * mark or a character which is not in the Latin range, the lower-casing is left to the Turkish locale of Java, since
+     * then the lower case of a character may depend on its neighbours.
+     *
+     * @param surfaceForm Token to classify.
+     * @param lowerCase   If true, the lower-cased form of the token is found.
+     */
+    private TokenClassifier(String surfaceForm, boolean lowerCase) {
+        int length = surfaceForm.length();
+        int start = 0;
+        char sign = 0;
+        if (length > 0 && (surfaceForm.charAt(0) == '+' || surfaceForm.charAt(0) == '-' || surfaceForm.charAt(0) == '%')) {
+            sign = surfaceForm.charAt(0);
+            start = 1;
+        }
+        boolean numeric = true, mail = false, latin = true;
+        int groups = 1, separators = 0;
+        long digitCounts = 0;
+        char[] lowerCasedChars = null;
+        for (int i = 0; i < length; i++) {
+            char ch = surfaceForm.charAt(i);
+            if (lowerCase && latin) {
+                if (ch >= FIRST_COMBINING_MARK) {
+                    latin = false;
+                } else {
+                    char lower = toLowerCase(ch);
+                    if (lower != ch) {
+                        if (lowerCasedChars == null) {
+                            lowerCasedChars = surfaceForm.toCharArray();
+                        }
+                        lowerCasedChars[i] = lower;
+                    }
+                }
+            }
+            if (ch == '@') {
+                mail = true;
+            }
+            if (!numeric || i < start) {
+                continue;
+            }
+            if (ch >= '0' && ch <= '9') {
+                if (digitCount(digitCounts, groups - 1) < MAXIMUM_DIGIT_COUNT) {
+                    digitCounts += 1L << (16 * (groups - 1));
+                }
+            } else {
+                if (ch == '/' && i > start && surfaceForm.charAt(i - 1) == '\\') {
+                    continue;
+                }
+                if ((ch == '.' || ch == '/' || ch == ':' || ch == '-' || (ch == '\\' && i + 1 < length && surfaceForm.charAt(i + 1) == '/')) && groups < MAXIMUM_GROUPS) {
+                    separators |= ch << (8 * (groups - 1));
+                    groups++;
+                } else {
+                    numeric = false;
+                }
+            }
+        }
+        TokenType numericType = numeric ? numericType(surfaceForm, sign, groups, digitCounts, separators) : null;
+        if (numericType != null) {
+            tokenType = numericType;
+        } else {
+            if (surfaceForm.startsWith("#")) {
+                tokenType = TokenType.HASHTAG;
+            } else {
+                tokenType = mail ? TokenType.EMAIL : TokenType.WORD;
+            }
+        }
+        if (!lowerCase) {
+            lowerCased = null;
+        } else {
+            if (!latin) {
+                lowerCased = surfaceForm.toLowerCase(TURKISH);
+            } else {
+                lowerCased = lowerCasedChars == null ? surfaceForm : new String(lowerCasedChars);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of digits in the given group, saturated at 16 bits.
+     *
+     * @param digitCounts Packed digit counts of the groups.
+     * @param group       Index of the group.
+     * @return Number of digits in the group.
+     */
+    private static int digitCount(long digitCounts, int group) {
+        return (int) ((digitCounts >>> (16 * group)) & MAXIMUM_DIGIT_COUNT);
+    }
+
+    /**
+     * Returns the separator before the given group.
+     *
+     * @param separators Packed separators of the groups.
+     * @param group      Index of the group, starting from 1.
+     * @return Separator before the group.
+     */
+    private static char separator(int separators, int group) {
+        return (char) ((separators >>> (8 * (group - 1))) & 0xFF);
+    }
+
+    /**
+     * Checks if a group of digits matches the (\d\d|\d) pattern.
+     *
+     * @param digitCount Number of digits in the group.
+     * @return True if the group has one or two digits.
+     */
+    private static boolean isShort(int digitCount) {
+        return digitCount == 1 || digitCount == 2;
+    }
+
+    /**
+     * Checks if the first end characters of a [-+]?\d+ token fit into an int. As in the regex based check, a token
+     * of ten characters is compared lexicographically with the largest int.
+     *
+     * @param surfaceForm Token to check.
+     * @param end         Number of characters of the integer.
+     * @return True if the integer fits into an int.
+     */
+    private static boolean fitsInteger(String surfaceForm, int end) {
+        if (end != 10) {
+            return end < 10;
+        }
+        String maximum = "2147483647";
+        for (int i = 0; i < end; i++) {
+            if (surfaceForm.charAt(i) != maximum.charAt(i)) {
+                return surfaceForm.charAt(i) < maximum.charAt(i);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the type of a number like token from the shape found by the scan. The shapes are the same as the ones of
+     * the regexes [-+]?\d+ for integers, [-+]?\d+\. for ordinals, ([-+]?\d+\.\d+)|(\d*\.\d+) for reals, \d+/\d+ and
+     * \d+\\/\d+ for fractions, (\d\d|\d)/(\d\d|\d)/\d+ and (\d\d|\d)\.(\d\d|\d)\.\d+ for dates, %(\d\d|\d) and
+     * %(\d\d|\d)\.\d+ for percents, (\d\d|\d):(\d\d|\d) and (\d\d|\d):(\d\d|\d):(\d\d|\d) for times, \d+-\d+,
+     * (\d\d|\d):(\d\d|\d)-(\d\d|\d):(\d\d|\d) and (\d\d|\d)\.(\d\d|\d)-(\d\d|\d)\.(\d\d|\d) for ranges.
+     *
+     * @param surfaceForm Token to classify.
+     * @param sign        Sign or percent character at the start of the token, 0 if there is none.
+     * @param groups      Number of digit groups.
+     * @param digitCounts Packed digit counts of the groups.
+     * @param separators  Packed separators of the groups.
+     * @return Type of the token, null if the token is not a number like token.
+     */
+    private static TokenType numericType(String surfaceForm, char sign, int groups, long digitCounts, int separators) {
+        int first = digitCount(digitCounts, 0), second = digitCount(digitCounts, 1);
+        int third = digitCount(digitCounts, 2), fourth = digitCount(digitCounts, 3);
+        if (sign == '%') {
+            if ((groups == 1 && isShort(first)) || (groups == 2 && separator(separators, 1) == '.' && isShort(first) && second > 0)) {
+                return TokenType.PERCENT;
+            }
+            return null;
+        }
+        switch (groups) {
+            case 1:
+                return first > 0 && fitsInteger(surfaceForm, surfaceForm.length()) ? TokenType.INTEGER : null;
+            case 2:
+                switch (separator(separators, 1)) {
+                    case '.':
+                        if (second == 0) {
+                            return first > 0 && fitsInteger(surfaceForm, surfaceForm.length() - 1) ? TokenType.ORDINAL : null;
+                        }
+                        return first > 0 || sign == 0 ? TokenType.REAL : null;
+                    case '/':
+                        return sign == 0 && first > 0 && second > 0 ? TokenType.FRACTION : null;
+                    case '\\':
+                        return sign == 0 && first > 0 && second > 0 ? TokenType.ESCAPED_FRACTION : null;
+                    case ':':
+                        return sign == 0 && isShort(first) && isShort(second) ? TokenType.TIME : null;
+                    case '-':
+                        return sign == 0 && first > 0 && second > 0 ? TokenType.RANGE : null;
+                }
+                return null;
+            case 3:
+                if (sign != 0 || separator(separators, 1) != separator(separators, 2) || !isShort(first) || !isShort(second)) {
+                    return null;
+                }
+                if (separator(separators, 1) == '/' || separator(separators, 1) == '.') {
+                    return third > 0 ? TokenType.DATE : null;
+                }
+                return separator(separators, 1) == ':' && isShort(third) ? TokenType.TIME : null;
+            default:
+                if (sign != 0 || separator(separators, 1) != separator(separators, 3) || (separator(separators, 1) != ':' && separator(separators, 1) != '.') || separator(separators, 2) != '-') {
+                    return null;
+                }
+                return isShort(first) && isShort(second) && isShort(third) && isShort(fourth) ? TokenType.RANGE : null;
+        }
+    }
+
+    /**
+     * Lower-cases a character which is before the combining marks, where I becomes ı and İ becomes i.
+     *
+     * @param ch Character to lower-case.
+     * @return Lower-cased character.
+     */
+    private static char toLowerCase(char ch) {
+        if (ch >= 'A' && ch <= 'Z') {
+            return ch == 'I' ? 'ı' : (char) (ch + ('a' - 'A'));
+        }
+        if (ch < 0x80) {
+            return ch;
+        }
+        if (ch == 'İ') {
+            return 'i';
+        }
+        return Character.toLowerCase(ch);
+    }
+
+    /**
+     * Lower-cases a string as the Turkish locale does, without creating a locale and returning the same string if it is
+     * already in lower case.
+     *
+     * @param surfaceForm String to lower-case.
+     * @return Lower-cased string.
+     */
+    public static String toLowerCase(String surfaceForm) {
+        char[] lowerCasedChars = null;
+        for (int i = 0; i < surfaceForm.length(); i++) {
+            char ch = surfaceForm.charAt(i);
+            if (ch >= FIRST_COMBINING_MARK) {
+                return surfaceForm.toLowerCase(TURKISH);
+            }
+            char lower = toLowerCase(ch);
+            if (lower != ch) {
+                if (lowerCasedChars == null) {
+                    lowerCasedChars = surfaceForm.toCharArray();
+                }
+                lowerCasedChars[i] = lower;
+            }
+        }
+        return lowerCasedChars == null ? surfaceForm : new String(lowerCasedChars);
+    }
+
+    /**
+     * Finds the type of a token without lower-casing it.
+     *
+     * @param surfaceForm Token to classify.
+     * @return Type of the token.
+     */
+    public static TokenType classify(String surfaceForm) {
+        return new TokenClassifier(surfaceForm, false).tokenType;
+    }
+
+    /**
+     * Checks if the token is a letter or a digit followed by a dot, which is the (\w|Ç|Ş|İ|Ü|Ö)\. pattern.
+     *
+     * @param surfaceForm Token to check.
+     * @return True if the token is an abbreviation of one character.
+     */
+    public static boolean isAbbreviation(String surfaceForm) {
+        if (surfaceForm.length() != 2 || surfaceForm.charAt(1) != '.') {
+            return false;
+        }
+        char ch = surfaceForm.charAt(0);
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_' || "ÇŞİÜÖ".indexOf(ch) != -1;
+    }
+
+    /**
+     * Checks if the token contains both a digit and a letter, which are the .*[0-9].* and .*[a-zA-ZçöğüşıÇÖĞÜŞİ].*
+     * patterns. As in the patterns, a token containing a line terminator is not a code.
+     *
+     * @param surfaceForm Token to check.
+     * @return True if the token is a code-like word.
+     */
+    public static boolean isCode(String surfaceForm) {
+        boolean digit = false, letter = false;
+        for (int i = 0; i < surfaceForm.length(); i++) {
+            char ch = surfaceForm.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                digit = true;
+            } else {
+                if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || "çöğüşıÇÖĞÜŞİ".indexOf(ch) != -1) {
+                    letter = true;
+                } else {
+                    if (ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029') {
+                        return false;
+                    }
+                }
+            }
+        }
+        return digit && letter;
+    }
+
+    /**
+     * Accessor for the token type.
+     *
+     * @return Type of the token.
+     */
+    public TokenType getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * Accessor for the lower-cased token.
+     *
+     * @return Token lower-cased as in the Turkish locale.
+     */
+    public String getLowerCased() {
+        return lowerCased;
+    }
+}
@@ -0,0 +1,52 @@
+package MorphologicalAnalysis;
+
+public enum TokenType {
+    /**
+     * Any token which is not one of the special tokens below : evlerimizde
+     */
+    WORD,
+    /**
+     * Integer that fits into an int : 123, -45
+     */
+    INTEGER,
+    /**
+     * Integer followed by a dot : 15.
+     */
+    ORDINAL,
+    /**
+     * Real number : 3.45, .5
+     */
+    REAL,
+    /**
+     * Fraction, which can also be read as a date : 3/4
+     */
+    FRACTION,
+    /**
+     * Fraction with an escaped slash : 3\/4
+     */
+    ESCAPED_FRACTION,
+    /**
+     * Date : 3/10/2023, 2.3.2012
+     */
+    DATE,
+    /**
+     * Percent : %4, %56.786
+     */
+    PERCENT,
+    /**
+     * Time : 3:34, 12:56:07
+     */
+    TIME,
+    /**
+     * Range : 123-1400, 12:34-15:48, 3.45-4.67
+     */
+    RANGE,
+    /**
+     * Hashtag : #istanbul
+     */
+    HASHTAG,
+    /**
+     * Mail : ali@gmail.com
+     */
+    EMAIL
+}
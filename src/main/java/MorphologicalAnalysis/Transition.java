@@ -9,6 +9,40 @@ public class Transition {
     private final String with;
     private final String withName;
     private final String toPos;
+    private final int flags;
+    private final char withFirstChar;
+    private final int minimumLength;
+    private final byte[] program;
+    private final String[] literals;
+    private static final int WITH_ZERO = 1;
+    private static final int WITH_AR = 1 << 1;
+    private static final int ADJECTIVE_ZERO_TO_NOMINAL = 1 << 2;
+    private static final int WITH_ZERO_PRES_A3PL = 1 << 3;
+    private static final int WITH_SH = 1 << 4;
+    private static final int WITH_KI = 1 << 5;
+    private static final int WITH_KU = 1 << 6;
+    private static final int FACTITIVE_DHR = 1 << 7;
+    private static final int AORIST_HR = 1 << 8;
+    private static final int NOUN_SOFTENING = 1 << 9;
+    private static final int VERB_SOFTENING = 1 << 10;
+    private static final int VOWEL_OR_CONSONANT_DROP = 1 << 11;
+    private static final int WITH_YLA = 1 << 12;
+    private static final int WITH_YA = 1 << 13;
+    private static final int PASSIVE_HL = 1 << 14;
+    private static final int SECOND_CHAR_H = 1 << 15;
+    private static final int FIRST_CHAR_CONSONANT_DROP = 1 << 16;
+    private static final int CONSONANT_DROP = 1 << 17;
+    private static final int WITH_APOSTROPHE = 1 << 18;
+    private static final int WITH_HYOR = 1 << 19;
+    private static final byte APPEND = 0;
+    private static final byte RESOLVE_D = 1;
+    private static final byte RESOLVE_A = 2;
+    private static final byte RESOLVE_H = 3;
+    private static final byte RESOLVE_FIRST_H = 4;
+    private static final byte RESOLVE_C = 5;
+    private static final byte RESOLVE_S = 6;
+    private static final byte RESOLVE_SH = 7;
+    private static final int ROOT_CHECKS = ADJECTIVE_ZERO_TO_NOMINAL | WITH_ZERO_PRES_A3PL | WITH_SH | WITH_KI | WITH_KU | FACTITIVE_DHR | AORIST_HR;
 
     /**
      * A constructor of {@link Transition} class which takes  a {@link State}, and two {@link String}s as input. Then it
@@ -23,6 +57,11 @@ public class Transition {
         this.with = with;
         this.withName = withName;
         toPos = null;
+        withFirstChar = withFirstChar(with);
+        flags = predicateFlags(toState, with, withFirstChar);
+        minimumLength = minimumLength(with, flags, withFirstChar);
+        program = compileProgram(with);
+        literals = compileLiterals(with, program);
     }
 
     /**
@@ -39,6 +78,11 @@ public class Transition {
         this.with = with;
         this.withName = withName;
         this.toPos = toPos;
+        withFirstChar = withFirstChar(with);
+        flags = predicateFlags(toState, with, withFirstChar);
+        minimumLength = minimumLength(with, flags, withFirstChar);
+        program = compileProgram(with);
+        literals = compileLiterals(with, program);
     }
 
     /**
@@ -52,6 +96,212 @@ public class Transition {
         withName = null;
         toPos = null;
         this.with = with;
+        withFirstChar = withFirstChar(with);
+        flags = predicateFlags(null, with, withFirstChar);
+        minimumLength = minimumLength(with, flags, withFirstChar);
+        program = compileProgram(with);
+        literals = compileLiterals(with, program);
+    }
+
+    /**
+     * Computes the results of the checks of transitionPossible and softenDuringSuffixation that depend only on the
+     * with string and the target state of the transition. Each check is a bit of the returned flags, so that during
+     * the search the transition is checked with bit tests, and the flags of the root are consulted only if the bit is
+     * set.
+     *
+     * @param toState       Target state of the transition. Can be null.
+     * @param with          With string of the transition.
+     * @param withFirstChar First character of the with string, skipping the apostrophe.
+     * @return Flags of the transition.
+     */
+    private static int predicateFlags(State toState, String with, char withFirstChar) {
+        int flags = 0;
+        if (with == null) {
+            return flags;
+        }
+        String toStateName = toState != null ? toState.getName() : "";
+        if (with.equalsIgnoreCase("0")) {
+            flags |= WITH_ZERO;
+            if (toStateName.equalsIgnoreCase("NominalRoot(ADJ)")) {
+                flags |= ADJECTIVE_ZERO_TO_NOMINAL;
+            }
+        }
+        if (with.equalsIgnoreCase("Ar")) {
+            flags |= WITH_AR;
+        }
+        if (with.equalsIgnoreCase("^DB+VERB+ZERO+PRES+A3PL")) {
+            flags |= WITH_ZERO_PRES_A3PL;
+        }
+        if (with.equalsIgnoreCase("SH")) {
+            flags |= WITH_SH;
+        }
+        if (with.equalsIgnoreCase("ki")) {
+            flags |= WITH_KI;
+        }
+        if (with.equalsIgnoreCase("kü")) {
+            flags |= WITH_KU;
+        }
+        if (with.equalsIgnoreCase("dHr") && !toStateName.equalsIgnoreCase("Adverb")) {
+            flags |= FACTITIVE_DHR;
+        }
+        if (with.equalsIgnoreCase("Hr") && (toStateName.equalsIgnoreCase("AdjectiveRoot(VERB)") || toStateName.equalsIgnoreCase("OtherTense") || toStateName.equalsIgnoreCase("OtherTense2"))) {
+            flags |= AORIST_HR;
+        }
+        if (with.equalsIgnoreCase("Hm") || with.equalsIgnoreCase("nDAn") || with.equalsIgnoreCase("ncA") || with.equalsIgnoreCase("nDA") || with.equalsIgnoreCase("yA") || with.equalsIgnoreCase("yHm") || with.equalsIgnoreCase("yHz") || with.equalsIgnoreCase("yH") || with.equalsIgnoreCase("nH") || with.equalsIgnoreCase("nA") || with.equalsIgnoreCase("nHn") || with.equalsIgnoreCase("H") || with.equalsIgnoreCase("sH") || with.equalsIgnoreCase("Hn") || with.equalsIgnoreCase("HnHz") || with.equalsIgnoreCase("HmHz")) {
+            flags |= NOUN_SOFTENING;
+        }
+        if (with.startsWith("Hyor") || with.equalsIgnoreCase("yHs") || with.equalsIgnoreCase("yAn") || with.equalsIgnoreCase("yA") || with.startsWith("yAcAk") || with.equalsIgnoreCase("yAsH") || with.equalsIgnoreCase("yHncA") || with.equalsIgnoreCase("yHp") || with.equalsIgnoreCase("yAlH") || with.equalsIgnoreCase("yArAk") || with.equalsIgnoreCase("yAdur") || with.equalsIgnoreCase("yHver") || with.equalsIgnoreCase("yAgel") || with.equalsIgnoreCase("yAgor") || with.equalsIgnoreCase("yAbil") || with.equalsIgnoreCase("yAyaz") || with.equalsIgnoreCase("yAkal") || with.equalsIgnoreCase("yAkoy") || with.equalsIgnoreCase("yAmA") || with.equalsIgnoreCase("yHcH") || with.equalsIgnoreCase("HCH") || with.startsWith("Hr") || with.equalsIgnoreCase("Hs") || with.equalsIgnoreCase("Hn") || with.equalsIgnoreCase("yHn") || with.equalsIgnoreCase("yHnHz") || with.startsWith("Ar") || with.equalsIgnoreCase("Hl")) {
+            flags |= VERB_SOFTENING;
+        }
+        if (TurkishLanguage.isConsonantDrop(withFirstChar) && !with.equalsIgnoreCase("ylA") && !with.equalsIgnoreCase("ysA") && !with.equalsIgnoreCase("ymHs") && !with.equalsIgnoreCase("yDH") && !with.equalsIgnoreCase("yken")) {
+            flags |= VOWEL_OR_CONSONANT_DROP;
+        } else {
+            if (withFirstChar == 'A' || withFirstChar == 'H' || TurkishLanguage.isVowel(withFirstChar)) {
+                flags |= VOWEL_OR_CONSONANT_DROP;
+            }
+        }
+        if (with.equalsIgnoreCase("ylA")) {
+            flags |= WITH_YLA;
+        }
+        if (with.equalsIgnoreCase("yA")) {
+            flags |= WITH_YA;
+        }
+        if (with.equalsIgnoreCase("Hl") || with.equalsIgnoreCase("Hn")) {
+            flags |= PASSIVE_HL;
+        }
+        if (with.length() > 1 && with.charAt(1) == 'H') {
+            flags |= SECOND_CHAR_H;
+        }
+        if (!with.isEmpty() && TurkishLanguage.isConsonantDrop(with.charAt(0))) {
+            flags |= FIRST_CHAR_CONSONANT_DROP;
+        }
+        if (TurkishLanguage.isConsonantDrop(withFirstChar)) {
+            flags |= CONSONANT_DROP;
+        }
+        if (with.startsWith("'")) {
+            flags |= WITH_APOSTROPHE;
+        } else {
+            if (with.startsWith("Hyor")) {
+                flags |= WITH_HYOR;
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Compiles the with string into the program run by makeTransition, which has one instruction for each character
+     * of the with string. D, A, C, S and Ş are resolved with the corresponding methods of {@link MorphotacticEngine}; H
+     * is resolved as the first H of the suffix if it is the first character, or the second character after an
+     * apostrophe. Every other character is appended to the stem, where a final s is appended as ş.
+     *
+     * @param with With string of the transition.
+     * @return Program of the transition.
+     */
+    private static byte[] compileProgram(String with) {
+        if (with == null) {
+            return new byte[0];
+        }
+        byte[] program = new byte[with.length()];
+        int firstH = with.startsWith("'") ? 1 : 0;
+        for (int i = 0; i < with.length(); i++) {
+            switch (with.charAt(i)) {
+                case 'D':
+                    program[i] = RESOLVE_D;
+                    break;
+                case 'A':
+                    program[i] = RESOLVE_A;
+                    break;
+                case 'H':
+                    program[i] = i == firstH ? RESOLVE_FIRST_H : RESOLVE_H;
+                    break;
+                case 'C':
+                    program[i] = RESOLVE_C;
+                    break;
+                case 'S':
+                    program[i] = RESOLVE_S;
+                    break;
+                case 'Ş':
+                    program[i] = RESOLVE_SH;
+                    break;
+                default:
+                    program[i] = APPEND;
+            }
+        }
+        return program;
+    }
+
+    /**
+     * Computes the characters appended by the APPEND instructions of the program. For each APPEND instruction, the
+     * characters of the consecutive APPEND instructions starting from it are kept as one string, so that they are
+     * appended at once.
+     *
+     * @param with    With string of the transition.
+     * @param program Program of the transition.
+     * @return Characters appended starting from each instruction, null for the other instructions.
+     */
+    private static String[] compileLiterals(String with, byte[] program) {
+        String[] literals = new String[program.length];
+        StringBuilder literal = new StringBuilder();
+        for (int i = program.length - 1; i >= 0; i--) {
+            if (program[i] == APPEND) {
+                if (i == with.length() - 1 && with.charAt(i) == 's') {
+                    literal.insert(0, 'ş');
+                } else {
+                    literal.insert(0, with.charAt(i));
+                }
+                literals[i] = literal.toString();
+            } else {
+                literal.setLength(0);
+            }
+        }
+        return literals;
+    }
+
+    /**
+     * Computes a lower bound of the number of characters the transition adds to a stem which is longer than the root
+     * by at least two characters. For such a stem, makeTransition does not drop or insert characters in the stem; it
+     * may only replace its last character. The suffix is then added character by character, where the A, H and Ş
+     * metamorphemes may add nothing, every other character adds exactly one character, and the first character is
+     * skipped if it is a consonant that drops after a consonant.
+     *
+     * @param with          With string of the transition.
+     * @param flags         Flags of the transition.
+     * @param withFirstChar First character of the with string, skipping the apostrophe.
+     * @return Minimum number of characters added by the transition.
+     */
+    private static int minimumLength(String with, int flags, char withFirstChar) {
+        if (with == null || (flags & WITH_ZERO) != 0) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < with.length(); i++) {
+            if (with.charAt(i) != 'A' && with.charAt(i) != 'H' && with.charAt(i) != 'Ş') {
+                length++;
+            }
+        }
+        if (TurkishLanguage.isConsonantDrop(withFirstChar)) {
+            length--;
+        }
+        return Math.max(length, 0);
+    }
+
+    /**
+     * Returns the minimum number of characters the transition adds to a stem that is longer than the root by at least
+     * two characters.
+     *
+     * @return Minimum number of characters added by the transition.
+     */
+    public int minimumLength() {
+        return minimumLength;
+    }
+
+    /**
+     * Checks if the transition adds nothing to the stem, that is, its with string is 0.
+     *
+     * @return True if the transition leaves the stem unchanged, false otherwise.
+     */
+    public boolean isZero() {
+        return (flags & WITH_ZERO) != 0;
     }
 
     /**
@@ -130,55 +380,69 @@ public class Transition {
      * @return true if transition is possible false otherwise
      */
     public boolean transitionPossible(FsmParse currentFsmParse) {
-        if (with.equalsIgnoreCase("Ar") && currentFsmParse.getSurfaceForm().endsWith("l") && !currentFsmParse.getWord().getName().equalsIgnoreCase(currentFsmParse.getSurfaceForm())) {
+        return transitionPossible(currentFsmParse.getWord(), currentFsmParse.getSurfaceForm());
+    }
+
+    /**
+     * The transitionPossible method takes the root and the surface form of a current parse as inputs. It then checks
+     * some special cases.
+     *
+     * @param root               Root of the current parse
+     * @param currentSurfaceForm Surface form of the current parse
+     * @return true if transition is possible false otherwise
+     */
+    public boolean transitionPossible(Word root, String currentSurfaceForm) {
+        if ((flags & WITH_AR) != 0 && currentSurfaceForm.endsWith("l") && !root.getName().equalsIgnoreCase(currentSurfaceForm)) {
             return false;
         }
         return true;
     }
 
     /**
-     * The transitionPossible method takes root and current parse as inputs. It then checks some special cases.
+     * The transitionPossible method takes root and current parse as inputs. It then checks some special cases. The
+     * checks on the with string and the target state are precomputed as flags, so the flags of the root are checked
+     * only for the transitions having such a special case.
      *
      * @param root Current root word
      * @param fromState From which state we arrived to this state.
      * @return true if transition is possible false otherwise
      */
     public boolean transitionPossible(TxtWord root, State fromState) {
-        if (root.isAdjective() && ((root.isNominal() && !root.isExceptional()) || root.isPronoun()) && toState.getName().equalsIgnoreCase("NominalRoot(ADJ)") && with.equalsIgnoreCase("0")) {
+        if ((flags & ROOT_CHECKS) == 0) {
+            return true;
+        }
+        if ((flags & ADJECTIVE_ZERO_TO_NOMINAL) != 0 && root.isAdjective() && ((root.isNominal() && !root.isExceptional()) || root.isPronoun())) {
             return false;
         }
-        if (root.isAdjective() && root.isNominal() && with.equalsIgnoreCase("^DB+VERB+ZERO+PRES+A3PL") && fromState.getName().equalsIgnoreCase("AdjectiveRoot")) {
+        if ((flags & WITH_ZERO_PRES_A3PL) != 0 && root.isAdjective() && root.isNominal() && fromState.getName().equalsIgnoreCase("AdjectiveRoot")) {
             return false;
         }
-        if (root.isAdjective() && root.isNominal() && with.equalsIgnoreCase("SH") && fromState.getName().equalsIgnoreCase("AdjectiveRoot")) {
+        if ((flags & WITH_SH) != 0 && root.isAdjective() && root.isNominal() && fromState.getName().equalsIgnoreCase("AdjectiveRoot")) {
             return false;
         }
-        if (with.equalsIgnoreCase("ki")) {
+        if ((flags & WITH_KI) != 0) {
             return root.takesRelativeSuffixKi();
         }
-        if (with.equalsIgnoreCase("kü")) {
+        if ((flags & WITH_KU) != 0) {
             return root.takesRelativeSuffixKu();
         }
-        if (with.equalsIgnoreCase("dHr")) {
-            if (toState.getName().equalsIgnoreCase("Adverb")) {
-                return true;
-            } else {
-                return root.takesSuffixDIRAsFactitive();
-            }
+        if ((flags & FACTITIVE_DHR) != 0) {
+            return root.takesSuffixDIRAsFactitive();
         }
-        if (with.equalsIgnoreCase("Hr") && (toState.getName().equalsIgnoreCase("AdjectiveRoot(VERB)") || toState.getName().equalsIgnoreCase("OtherTense") || toState.getName().equalsIgnoreCase("OtherTense2"))) {
+        if ((flags & AORIST_HR) != 0) {
             return root.takesSuffixIRAsAorist();
         }
         return true;
     }
 
     /**
-     * The withFirstChar method returns the first character of the with variable.
+     * The withFirstChar method returns the first character of the given with string, skipping the apostrophe.
      *
-     * @return the first character of the with variable.
+     * @param with With string of the transition.
+     * @return the first character of the with string.
      */
-    private char withFirstChar() {
-        if (with.isEmpty()) {
+    private static char withFirstChar(String with) {
+        if (with == null || with.isEmpty()) {
             return '$';
         }
         if (with.charAt(0) != '\'') {
@@ -196,15 +460,13 @@ public class Transition {
      * The startWithVowelorConsonantDrops method checks for some cases. If the first character of with variable is "nsy",
      * and with variable does not equal to one of the Strings; "ylA, ysA, ymHs, yDH, yken", it returns true. If
      * <p>
-     * Or, if the first character of with variable is 'A', 'H': or any other vowels, it returns true.
+     * Or, if the first character of with variable is 'A', 'H': or any other vowels, it returns true. The result is
+     * computed once when the transition is constructed.
      *
      * @return true if it starts with vowel or consonant drops, false otherwise.
      */
     private boolean startWithVowelorConsonantDrops() {
-        if (TurkishLanguage.isConsonantDrop(withFirstChar()) && !with.equalsIgnoreCase("ylA") && !with.equalsIgnoreCase("ysA") && !with.equalsIgnoreCase("ymHs") && !with.equalsIgnoreCase("yDH") && !with.equalsIgnoreCase("yken")) {
-            return true;
-        }
-        return withFirstChar() == 'A' || withFirstChar() == 'H' || TurkishLanguage.isVowel(withFirstChar());
+        return (flags & VOWEL_OR_CONSONANT_DROP) != 0;
     }
 
     /**
@@ -220,10 +482,13 @@ public class Transition {
      * @return true if there is softening during suffixation of the given root, false otherwise.
      */
     public boolean softenDuringSuffixation(TxtWord root, State startState) {
-        if (!startState.getName().startsWith("VerbalRoot") && (root.isNominal() || root.isAdjective()) && root.nounSoftenDuringSuffixation() && (with.equalsIgnoreCase("Hm") || with.equalsIgnoreCase("nDAn") || with.equalsIgnoreCase("ncA") || with.equalsIgnoreCase("nDA") || with.equalsIgnoreCase("yA") || with.equalsIgnoreCase("yHm") || with.equalsIgnoreCase("yHz") || with.equalsIgnoreCase("yH") || with.equalsIgnoreCase("nH") || with.equalsIgnoreCase("nA") || with.equalsIgnoreCase("nHn") || with.equalsIgnoreCase("H") || with.equalsIgnoreCase("sH") || with.equalsIgnoreCase("Hn") || with.equalsIgnoreCase("HnHz") || with.equalsIgnoreCase("HmHz"))) {
+        if ((flags & (NOUN_SOFTENING | VERB_SOFTENING)) == 0) {
+            return false;
+        }
+        if ((flags & NOUN_SOFTENING) != 0 && !startState.getName().startsWith("VerbalRoot") && (root.isNominal() || root.isAdjective()) && root.nounSoftenDuringSuffixation()) {
             return true;
         }
-        return startState.getName().startsWith("VerbalRoot") && root.isVerb() && root.verbSoftenDuringSuffixation() && (with.startsWith("Hyor") || with.equalsIgnoreCase("yHs") || with.equalsIgnoreCase("yAn") || with.equalsIgnoreCase("yA") || with.startsWith("yAcAk") || with.equalsIgnoreCase("yAsH") || with.equalsIgnoreCase("yHncA") || with.equalsIgnoreCase("yHp") || with.equalsIgnoreCase("yAlH") || with.equalsIgnoreCase("yArAk") || with.equalsIgnoreCase("yAdur") || with.equalsIgnoreCase("yHver") || with.equalsIgnoreCase("yAgel") || with.equalsIgnoreCase("yAgor") || with.equalsIgnoreCase("yAbil") || with.equalsIgnoreCase("yAyaz") || with.equalsIgnoreCase("yAkal") || with.equalsIgnoreCase("yAkoy") || with.equalsIgnoreCase("yAmA") || with.equalsIgnoreCase("yHcH") || with.equalsIgnoreCase("HCH") || with.startsWith("Hr") || with.equalsIgnoreCase("Hs") || with.equalsIgnoreCase("Hn") || with.equalsIgnoreCase("yHn") || with.equalsIgnoreCase("yHnHz") || with.startsWith("Ar") || with.equalsIgnoreCase("Hl"));
+        return (flags & VERB_SOFTENING) != 0 && startState.getName().startsWith("VerbalRoot") && root.isVerb() && root.verbSoftenDuringSuffixation();
     }
 
     /**
@@ -254,23 +519,38 @@ public class Transition {
      * ('Hl' or 'Hn') and last 'I' drops during passive suffixation. (f) Adds 'y' character when the word ends with 'su'
      * and the transition does not start with 'y'. (g) Adds the last character again when the root duplicates during
      * suffixation. (h) Drops the last two characters and adds the last character when last 'i' drops during
-     * suffixation. (i) Replaces the last character with a soft one when the root soften during suffixation.
+     * suffixation. (i) Replaces the last character with a soft one when the root soften during suffixation. The suffix
+     * is then added by running the program compiled from the with string when the transition is created.
      * @param root Root of the current word form
      * @param stem Current word form
      * @param startState The state from which this Fsm morphological analysis search has started.
      * @return The current value of the word form after this transition is completed in the finite state machine.
      */
     public String makeTransition(TxtWord root, String stem, State startState) {
+        return makeTransition(root, stem, startState, MorphotacticEngine.lastVowel(stem));
+    }
+
+    /**
+     * The method makes the transition as the makeTransition method above, where the last vowel of the current word
+     * form is also given. While the suffix is added, the last vowel of the word form is updated with the added
+     * characters, so that the A and H metamorphemes are resolved without searching the word form for its last vowel.
+     * @param root Root of the current word form
+     * @param stem Current word form
+     * @param startState The state from which this Fsm morphological analysis search has started.
+     * @param stemLastVowel Last vowel of the current word form, 0 if it has no vowels.
+     * @return The current value of the word form after this transition is completed in the finite state machine.
+     */
+    public String makeTransition(TxtWord root, String stem, State startState, char stemLastVowel) {
+        if ((flags & WITH_ZERO) != 0) {
+            return stem;
+        }
         boolean rootWord = root.getName().equalsIgnoreCase(stem) || (root.getName() + "'").equalsIgnoreCase(stem);
         String formation = stem;
         int i = 0;
-        if (with.equalsIgnoreCase("0")) {
-            return stem;
-        }
-        if ((stem.equals("bu") || stem.equals("şu") || stem.equals("o")) && rootWord && with.equalsIgnoreCase("ylA")) {
+        if ((flags & WITH_YLA) != 0 && rootWord && (stem.equals("bu") || stem.equals("şu") || stem.equals("o"))) {
             return stem + "nunla";
         }
-        if (with.equalsIgnoreCase("yA")) {
+        if ((flags & WITH_YA) != 0) {
             if (stem.equals("ben")) {
                 return "bana";
             }
@@ -281,14 +561,14 @@ public class Transition {
         String formationToCheck;
         //---vowelEChangesToIDuringYSuffixation---
         //de->d(i)yor, ye->y(i)yor
-        if (rootWord && withFirstChar() == 'y' && root.vowelEChangesToIDuringYSuffixation() && (with.charAt(1) != 'H' || root.getName().equals("ye"))) {
+        if (rootWord && withFirstChar == 'y' && root.vowelEChangesToIDuringYSuffixation() && ((flags & SECOND_CHAR_H) == 0 || root.getName().equals("ye"))) {
             formation = stem.substring(0, stem.length() - 1) + 'i';
             formationToCheck = formation;
         } else {
             //---lastIdropsDuringPassiveSuffixation---
             // yoğur->yoğrul, ayır->ayrıl, buyur->buyrul, çağır->çağrıl, çevir->çevril, devir->devril,
             // kavur->kavrul, kayır->kayrıl, kıvır->kıvrıl, savur->savrul, sıyır->sıyrıl, yoğur->yoğrul
-            if (rootWord && (with.equalsIgnoreCase("Hl") || with.equalsIgnoreCase("Hn")) && root.lastIdropsDuringPassiveSuffixation()) {
+            if (rootWord && (flags & PASSIVE_HL) != 0 && root.lastIdropsDuringPassiveSuffixation()) {
                 formation = stem.substring(0, stem.length() - 2) + stem.charAt(stem.length() - 1);
                 formationToCheck = stem;
             } else {
@@ -299,7 +579,7 @@ public class Transition {
                     i = 1;
                     formationToCheck = formation;
                 } else {
-                    if (rootWord && root.duplicatesDuringSuffixation() && !startState.getName().startsWith("VerbalRoot") && TurkishLanguage.isConsonantDrop(with.charAt(0))) {
+                    if (rootWord && root.duplicatesDuringSuffixation() && !startState.getName().startsWith("VerbalRoot") && (flags & FIRST_CHAR_CONSONANT_DROP) != 0) {
                         //---duplicatesDuringSuffixation---
                         if (softenDuringSuffixation(root, startState)) {
                             //--extra softenDuringSuffixation
@@ -391,16 +671,18 @@ public class Transition {
                 }
             }
         }
-        if (TurkishLanguage.isConsonantDrop(withFirstChar()) && stem.length() > 1 && !TurkishLanguage.isVowel(stem.charAt(stem.length() - 1)) && (root.isNumeral() || root.isReal() || root.isFraction() || root.isTime() || root.isDate() || root.isPercent() || root.isRange()) && (root.getName().endsWith("1") || root.getName().endsWith("3") || root.getName().endsWith("4") || root.getName().endsWith("5") || root.getName().endsWith("8") || root.getName().endsWith("9") || root.getName().endsWith("10") || root.getName().endsWith("30") || root.getName().endsWith("40") || root.getName().endsWith("60") || root.getName().endsWith("70") || root.getName().endsWith("80") || root.getName().endsWith("90") || root.getName().endsWith("00"))) {
-            if (with.charAt(0) == '\'') {
+        char formationLastVowel = formation == stem ? stemLastVowel : MorphotacticEngine.lastVowel(formation);
+        char lastVowel = formationToCheck == stem ? stemLastVowel : formationLastVowel;
+        if ((flags & CONSONANT_DROP) != 0 && stem.length() > 1 && !TurkishLanguage.isVowel(stem.charAt(stem.length() - 1)) && (root.isNumeral() || root.isReal() || root.isFraction() || root.isTime() || root.isDate() || root.isPercent() || root.isRange()) && (root.getName().endsWith("1") || root.getName().endsWith("3") || root.getName().endsWith("4") || root.getName().endsWith("5") || root.getName().endsWith("8") || root.getName().endsWith("9") || root.getName().endsWith("10") || root.getName().endsWith("30") || root.getName().endsWith("40") || root.getName().endsWith("60") || root.getName().endsWith("70") || root.getName().endsWith("80") || root.getName().endsWith("90") || root.getName().endsWith("00"))) {
+            if ((flags & WITH_APOSTROPHE) != 0) {
                 formation = formation + '\'';
                 i = 2;
             } else {
                 i = 1;
             }
         } else {
-            if ((TurkishLanguage.isConsonantDrop(withFirstChar()) && TurkishLanguage.isConsonant(Word.lastPhoneme(stem))) || (rootWord && root.consonantSMayInsertedDuringPossesiveSuffixation())) {
-                if (with.charAt(0) == '\'') {
+            if (((flags & CONSONANT_DROP) != 0 && TurkishLanguage.isConsonant(Word.lastPhoneme(stem))) || (rootWord && root.consonantSMayInsertedDuringPossesiveSuffixation())) {
+                if ((flags & WITH_APOSTROPHE) != 0) {
                     formation = formation + '\'';
                     if (root.isAbbreviation())
                         i = 1;
@@ -411,40 +693,46 @@ public class Transition {
                 }
             }
         }
-        for (; i < with.length(); i++) {
-            switch (with.charAt(i)) {
-                case 'D':
+        for (; i < program.length; i++) {
+            String previous = formation;
+            switch (program[i]) {
+                case RESOLVE_D:
                     formation = MorphotacticEngine.resolveD(root, formation, formationToCheck);
                     break;
-                case 'A':
-                    formation = MorphotacticEngine.resolveA(root, formation, rootWord, formationToCheck);
+                case RESOLVE_A:
+                    formation = MorphotacticEngine.resolveA(root, formation, rootWord, lastVowel != 0 ? lastVowel : Word.lastVowel(formationToCheck));
                     break;
-                case 'H':
-                    if (with.charAt(0) != '\'') {
-                        formation = MorphotacticEngine.resolveH(root, formation, i == 0, with.startsWith("Hyor"), rootWord, formationToCheck);
-                    } else {
-                        formation = MorphotacticEngine.resolveH(root, formation, i == 1, false, rootWord, formationToCheck);
-                    }
+                case RESOLVE_FIRST_H:
+                    formation = MorphotacticEngine.resolveH(root, formation, true, (flags & WITH_HYOR) != 0, rootWord, formationToCheck, lastVowel != 0 ? lastVowel : Word.lastVowel(formationToCheck));
                     //Added for the second H in HnHz and HmHz.
                     rootWord = false;
                     break;
-                case 'C':
+                case RESOLVE_H:
+                    formation = MorphotacticEngine.resolveH(root, formation, false, (flags & WITH_HYOR) != 0, rootWord, formationToCheck, lastVowel != 0 ? lastVowel : Word.lastVowel(formationToCheck));
+                    rootWord = false;
+                    break;
+                case RESOLVE_C:
                     formation = MorphotacticEngine.resolveC(formation, formationToCheck);
                     break;
-                case 'S':
+                case RESOLVE_S:
                     formation = MorphotacticEngine.resolveS(formation);
                     break;
-                case 'Ş':
+                case RESOLVE_SH:
                     formation = MorphotacticEngine.resolveSh(formation);
                     break;
                 default:
-                    if (i == with.length() - 1 && with.charAt(i) == 's') {
-                        formation += 'ş';
-                    } else {
-                        formation += with.charAt(i);
-                    }
+                    formation += literals[i];
+                    i += literals[i].length() - 1;
+            }
+            if (formation != previous) {
+                if (formation.length() > previous.length()) {
+                    formationLastVowel = MorphotacticEngine.lastVowel(formationLastVowel, formation, previous.length());
+                } else {
+                    formationLastVowel = MorphotacticEngine.lastVowel(formation);
+                }
             }
             formationToCheck = formation;
+            lastVowel = formationLastVowel;
         }
         return formation;
     }
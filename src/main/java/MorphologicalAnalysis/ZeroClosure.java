@@ -0,0 +1,50 @@
+package MorphologicalAnalysis;
+
+public class ZeroClosure {
+
+    private final Transition[] transitions;
+    private final int[] parents;
+
+    /**
+     * Constructor of ZeroClosure class. The closure of a state holds every path of zero transitions leaving the
+     * state. The paths are kept as a tree: each item is a zero transition together with the index of the item whose
+     * state it leaves, or -1 if it leaves the state of the closure itself. An item always comes after its parent.
+     *
+     * @param transitions Zero transitions of the items.
+     * @param parents     Index of the parent of each item, -1 for the items leaving the state of the closure.
+     */
+    public ZeroClosure(Transition[] transitions, int[] parents) {
+        this.transitions = transitions;
+        this.parents = parents;
+    }
+
+    /**
+     * Returns the number of items in the closure.
+     *
+     * @return Number of zero transition paths leaving the state.
+     */
+    public int size() {
+        return transitions.length;
+    }
+
+    /**
+     * Accessor for the zero transition of an item.
+     *
+     * @param index Index of the item.
+     * @return Zero transition of the item.
+     */
+    public Transition getTransition(int index) {
+        return transitions[index];
+    }
+
+    /**
+     * Accessor for the parent of an item.
+     *
+     * @param index Index of the item.
+     * @return Index of the item whose state the transition leaves, -1 if it leaves the state of the closure.
+     */
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+}
@@ -0,0 +1,58 @@
+package MorphologicalAnalysis;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AnalysisCacheTest {
+
+    @Test
+    public void testAddAndGet() {
+        AnalysisCache<String, Integer> cache = new AnalysisCache<>(100);
+        cache.add("ev", 1);
+        cache.add("evler", 2);
+        assertTrue(cache.contains("ev"));
+        assertFalse(cache.contains("kitap"));
+        assertEquals(Integer.valueOf(1), cache.get("ev"));
+        assertEquals(Integer.valueOf(2), cache.get("evler"));
+        assertNull(cache.get("kitap"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        AnalysisCache<String, Integer> cache = new AnalysisCache<>(1000);
+        for (int i = 0; i < 10000; i++) {
+            cache.add("kelime" + i, i);
+        }
+        assertTrue(cache.size() <= 1000);
+        assertEquals(10000 - cache.size(), cache.evictionCount());
+    }
+
+    @Test
+    public void testScanResistance() {
+        AnalysisCache<String, Integer> cache = new AnalysisCache<>(1000);
+        for (int j = 0; j < 5; j++) {
+            for (int i = 0; i < 500; i++) {
+                if (cache.get("sık" + i) == null) {
+                    cache.add("sık" + i, i);
+                }
+            }
+        }
+        for (int i = 0; i < 50000; i++) {
+            if (cache.get("nadir" + i) == null) {
+                cache.add("nadir" + i, i);
+            }
+            if (i % 4 == 0 && cache.get("sık" + (i / 4) % 500) == null) {
+                cache.add("sık" + (i / 4) % 500, i);
+            }
+        }
+        int hits = 0;
+        for (int i = 0; i < 500; i++) {
+            if (cache.contains("sık" + i)) {
+                hits++;
+            }
+        }
+        assertTrue(hits > 450);
+    }
+}
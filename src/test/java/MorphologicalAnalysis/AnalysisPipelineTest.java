@@ -0,0 +1,87 @@
+package MorphologicalAnalysis;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class AnalysisPipelineTest {
+    FsmMorphologicalAnalyzer fsm;
+
+    @Before
+    public void setUp() {
+        fsm = new FsmMorphologicalAnalyzer();
+    }
+
+    @Test
+    public void testOrderedOutput() throws IOException {
+        String input = "Dün yaptığı güreş maçında\nmağlup oldu\n\nHemşirenle   evlendim\n";
+        String[] tokens = input.trim().split("\\s+");
+        AnalysisPipeline pipeline = new AnalysisPipeline(fsm, 3, 2, 1);
+        pipeline.setProgressStream(null, 0);
+        StringWriter output = new StringWriter();
+        assertEquals(tokens.length, pipeline.run(new StringReader(input), output));
+        StringBuilder expected = new StringBuilder();
+        for (String token : tokens) {
+            FsmParseList fsmParseList = fsm.morphologicalAnalysis(token);
+            expected.append(token).append("\n");
+            for (int i = 0; i < fsmParseList.size(); i++) {
+                expected.append(fsmParseList.getFsmParse(i).toString()).append("\n");
+            }
+            expected.append("\n");
+        }
+        assertEquals(expected.toString(), output.toString());
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        AnalysisPipeline pipeline = new AnalysisPipeline(fsm, 2, 2, 10);
+        pipeline.setProgressStream(null, 0);
+        StringWriter output = new StringWriter();
+        assertEquals(0, pipeline.run(new StringReader(""), output));
+        assertEquals("", output.toString());
+    }
+
+    @Test
+    public void testReaderFailure() throws IOException {
+        AnalysisPipeline pipeline = new AnalysisPipeline(fsm, 2, 2, 1);
+        pipeline.setProgressStream(null, 0);
+        Reader input = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try {
+            pipeline.run(input, new StringWriter());
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void testLongLine() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            input.append(i % 2 == 0 ? "evler" : "geldim").append(i % 3 == 0 ? "\t" : " ");
+        }
+        AnalysisPipeline pipeline = new AnalysisPipeline(fsm, 2, 2, 7);
+        ByteArrayOutputStream progress = new ByteArrayOutputStream();
+        pipeline.setProgressStream(new PrintStream(progress), 1000);
+        StringWriter output = new StringWriter();
+        assertEquals(5000, pipeline.run(new StringReader(input.toString()), output));
+        assertTrue(output.toString().startsWith("evler\n"));
+        assertTrue(progress.toString().contains("5000 tokens analyzed"));
+    }
+}
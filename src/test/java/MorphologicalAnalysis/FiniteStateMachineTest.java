@@ -106,4 +106,57 @@ public class FiniteStateMachineTest {
         assertEquals(24, (int) topList.get(4).getValue());
     }
 
-}
\ No newline at end of file
+    @org.junit.Test
+    public void testCompiledStates() {
+        for (int i = 0; i < stateList.size(); i++){
+            State state = stateList.get(i);
+            assertEquals(i, state.getIndex());
+            assertSame(state, fsm.getState(state.getName().toUpperCase()));
+            assertArrayEquals(fsm.getTransitions(state).toArray(), fsm.getTransitionArray(state));
+        }
+        assertNull(fsm.getState("NoSuchState"));
+        assertEquals(0, fsm.getTransitionArray(new State("NominalRoot", true, false)).length);
+    }
+
+    @org.junit.Test
+    public void testMinimumSuffixLength() {
+        for (State state : stateList){
+            if (state.isEndState()){
+                assertEquals(0, fsm.minimumSuffixLength(state));
+            }
+            for (Transition transition : fsm.getTransitions(state)){
+                assertTrue(fsm.minimumSuffixLength(state) <= transition.minimumLength() + fsm.minimumSuffixLength(transition.toState()));
+            }
+        }
+        assertEquals(2, new Transition("lAr").minimumLength());
+        assertEquals(0, new Transition("0").minimumLength());
+        assertEquals(1, new Transition("yDH").minimumLength());
+    }
+
+    @org.junit.Test
+    public void testZeroClosure() {
+        int zeroCount = 0;
+        for (State state : stateList) {
+            Transition[] surfaceTransitions = fsm.getSurfaceTransitionArray(state);
+            int surfaceCount = 0;
+            for (Transition transition : fsm.getTransitionArray(state)) {
+                if (transition.isZero()) {
+                    zeroCount++;
+                } else {
+                    assertSame(transition, surfaceTransitions[surfaceCount++]);
+                }
+            }
+            assertEquals(surfaceCount, surfaceTransitions.length);
+            ZeroClosure zeroClosure = fsm.getZeroClosure(state);
+            for (int i = 0; i < zeroClosure.size(); i++) {
+                int parent = zeroClosure.getParent(i);
+                assertTrue(parent < i);
+                State fromState = parent == -1 ? state : zeroClosure.getTransition(parent).toState();
+                assertTrue(zeroClosure.getTransition(i).isZero());
+                assertTrue(fsm.getTransitions(fromState).contains(zeroClosure.getTransition(i)));
+            }
+        }
+        assertEquals(111, zeroCount);
+    }
+
+}
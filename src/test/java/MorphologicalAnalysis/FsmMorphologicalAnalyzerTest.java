@@ -2,6 +2,7 @@ package MorphologicalAnalysis;
 
 import Corpus.Sentence;
 import Dictionary.TxtDictionary;
+import Dictionary.TurkishWordComparator;
 import Dictionary.TxtWord;
 import Dictionary.Word;
 import Util.FileUtils;
@@ -14,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 import static MorphologicalAnalysis.MetamorphicParse.createWithList;
 import static org.junit.Assert.*;
@@ -358,4 +360,221 @@ public class FsmMorphologicalAnalyzerTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSharedBetweenThreads() throws InterruptedException {
+        String[] testWords = {"Slack'in", "SPK'ya", "Stephen'ın", "Google'ı", "3'ü", "1/2'si", "A.", "kitabı", "evlendim", "yapsa"};
+        FsmMorphologicalAnalyzer sequential = new FsmMorphologicalAnalyzer();
+        String[] expected = new String[testWords.length];
+        for (int i = 0; i < testWords.length; i++) {
+            expected[i] = sequential.morphologicalAnalysis(testWords[i]).toString();
+        }
+        Thread[] threads = new Thread[8];
+        ArrayList<String> errors = new ArrayList<>();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 20; j++) {
+                    for (int k = 0; k < testWords.length; k++) {
+                        if (!expected[k].equals(fsm.morphologicalAnalysis(testWords[k]).toString())) {
+                            synchronized (errors) {
+                                errors.add(testWords[k]);
+                            }
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    @Test
+    public void testLazyInflectionalGroups() throws InterruptedException {
+        FsmParseList fsmParseList = fsm.morphologicalAnalysis("kitabı");
+        Thread[] threads = new Thread[8];
+        InflectionalGroup[][] groups = new InflectionalGroup[threads.length][fsmParseList.size()];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < fsmParseList.size(); j++) {
+                    groups[index][j] = fsmParseList.getFsmParse(j).getInflectionalGroup(0);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int j = 0; j < fsmParseList.size(); j++) {
+            for (int i = 1; i < threads.length; i++) {
+                assertSame(groups[0][j], groups[i][j]);
+            }
+        }
+        FsmParse parse = fsmParseList.getFsmParse(0);
+        String before = parse.getTransitionList();
+        FsmParse copy = parse.clone();
+        copy.constructInflectionalGroups();
+        copy.addSuffix(new State("Test", false, true), "kitabıydı", "^DB+VERB+ZERO+PAST+A3SG", "ydH", null);
+        assertEquals(before, copy.getTransitionList());
+        assertTrue(copy.containsTag(MorphologicalTag.NOUN));
+    }
+
+    @Test
+    public void testParallelSentenceAnalysis() {
+        Sentence sentence = new Sentence("Dün yaptığı güreş maçında mağlup oldu ama Stephen'ın 3'ü SPK'ya gitmişti");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        FsmParseList[] sequential = fsm.robustMorphologicalAnalysis(sentence);
+        FsmParseList[] parallel = fsm.robustMorphologicalAnalysis(sentence, pool);
+        assertEquals(sequential.length, parallel.length);
+        for (int i = 0; i < sequential.length; i++) {
+            assertEquals(sequential[i].toString(), parallel[i].toString());
+        }
+        ArrayList<Sentence> sentences = new ArrayList<>();
+        sentences.add(sentence);
+        sentences.add(new Sentence("Hemşirenle evlendim"));
+        ArrayList<FsmParseList[]> analyses = fsm.morphologicalAnalysis(sentences, pool);
+        assertEquals(2, analyses.size());
+        assertEquals(2, analyses.get(1).length);
+        assertEquals(fsm.morphologicalAnalysis("evlendim").toString(), analyses.get(1)[1].toString());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testNegativeCache() {
+        AnalyzerStatistics statistics = fsm.getStatistics();
+        statistics.reset();
+        assertEquals(0, fsm.morphologicalAnalysis("xqzwvbn").size());
+        assertEquals(0, statistics.getCount(AnalysisPath.NEGATIVE_CACHE_HIT));
+        assertEquals(0, fsm.morphologicalAnalysis("xqzwvbn").size());
+        assertEquals(1, statistics.getCount(AnalysisPath.NEGATIVE_CACHE_HIT));
+        assertTrue(fsm.morphologicalAnalysis("evlendim").size() != 0);
+    }
+
+    @Test
+    public void testCachedParseListCopy() {
+        FsmParseList first = fsm.morphologicalAnalysis("evlerimizde");
+        int size = first.size();
+        assertTrue(size > 0);
+        first.reduceToParsesWithSameRoot("xqzwvbn");
+        assertEquals(0, first.size());
+        FsmParseList second = fsm.morphologicalAnalysis("evlerimizde");
+        assertEquals(size, second.size());
+        second.reduceToParsesWithSameRoot("xqzwvbn");
+        assertEquals(size, fsm.morphologicalAnalysis("evlerimizde").size());
+    }
+
+    @Test
+    public void testStatistics() {
+        AnalyzerStatistics statistics = fsm.getStatistics();
+        statistics.reset();
+        fsm.morphologicalAnalysis("evlendim");
+        fsm.morphologicalAnalysis("evlendim");
+        fsm.morphologicalAnalysis("3/10/2023");
+        fsm.morphologicalAnalysis("xqzwvbn");
+        fsm.morphologicalAnalysis("xqzwvbn");
+        assertEquals(2, statistics.getCount(AnalysisPath.FSM_SEARCH));
+        assertEquals(1, statistics.getCount(AnalysisPath.CACHE_HIT));
+        assertEquals(1, statistics.getCount(AnalysisPath.NEGATIVE_CACHE_HIT));
+        assertEquals(1, statistics.getCount(AnalysisPath.SPECIAL_TOKEN));
+        assertEquals(1, statistics.getCacheHitCount());
+        assertTrue(statistics.getPercentile(AnalysisPath.FSM_SEARCH, 99) >= statistics.getPercentile(AnalysisPath.FSM_SEARCH, 50));
+        statistics.reset();
+        assertEquals(0, statistics.getCount(AnalysisPath.FSM_SEARCH));
+        assertEquals(0, statistics.getCacheHitCount());
+        assertTrue(statistics.getCacheSize() > 0);
+    }
+
+    private FsmMorphologicalAnalyzer analyzerWithDifferentDictionary() throws IOException {
+        File dictionaryFile = File.createTempFile("dictionary", ".txt");
+        dictionaryFile.deleteOnExit();
+        TxtDictionary dictionary = fsm.getDictionary();
+        PrintWriter output = new PrintWriter(dictionaryFile, "UTF-8");
+        for (int i = 0; i < dictionary.size() - 1; i++) {
+            output.println(dictionary.getWord(i).toString());
+        }
+        output.close();
+        return new FsmMorphologicalAnalyzer(new TxtDictionary(dictionaryFile.getPath(), new TurkishWordComparator()));
+    }
+
+    @Test
+    public void testCacheSnapshot() throws IOException {
+        String[] testWords = {"evlendim", "Hemşirenle", "3'ü", "Stephen'ın", "3/10/2023", "xqzwvbn"};
+        for (String word : testWords) {
+            fsm.morphologicalAnalysis(word);
+        }
+        File snapshot = File.createTempFile("cache", ".bin");
+        snapshot.deleteOnExit();
+        fsm.saveCache(snapshot.getPath());
+        FsmMorphologicalAnalyzer loaded = new FsmMorphologicalAnalyzer();
+        assertTrue(loaded.loadCache(snapshot.getPath()));
+        loaded.getStatistics().reset();
+        for (String word : testWords) {
+            assertEquals(fsm.morphologicalAnalysis(word).toString(), loaded.morphologicalAnalysis(word).toString());
+        }
+        assertEquals(0, loaded.getStatistics().getCount(AnalysisPath.FSM_SEARCH));
+        assertFalse(analyzerWithDifferentDictionary().loadCache(snapshot.getPath()));
+        PrintWriter output = new PrintWriter(snapshot);
+        output.println("not a snapshot");
+        output.close();
+        assertFalse(new FsmMorphologicalAnalyzer().loadCache(snapshot.getPath()));
+    }
+
+    @Test
+    public void testLexicon() throws IOException {
+        ArrayList<TxtWord> roots = new ArrayList<>();
+        roots.add((TxtWord) fsm.getDictionary().getWord("ev"));
+        roots.add((TxtWord) fsm.getDictionary().getWord("kitap"));
+        File lexiconFile = File.createTempFile("lexicon", ".bin");
+        lexiconFile.deleteOnExit();
+        fsm.saveLexicon(lexiconFile.getPath(), roots, 6);
+        FsmMorphologicalAnalyzer loaded = new FsmMorphologicalAnalyzer();
+        assertTrue(loaded.loadLexicon(lexiconFile.getPath()));
+        String[] testWords = {"evlerimizde", "Evde", "kitabı", "kitaplardan", "evlendim", "xqzwvbn"};
+        for (String word : testWords) {
+            assertEquals(fsm.morphologicalAnalysis(word).toString(), loaded.morphologicalAnalysis(word).toString());
+        }
+        assertEquals(4, loaded.getStatistics().getCount(AnalysisPath.LEXICON_HIT));
+        assertFalse(analyzerWithDifferentDictionary().loadLexicon(lexiconFile.getPath()));
+        PrintWriter output = new PrintWriter(lexiconFile);
+        output.println("not a lexicon");
+        output.close();
+        assertFalse(new FsmMorphologicalAnalyzer().loadLexicon(lexiconFile.getPath()));
+    }
+
+    @Test
+    public void testSurfaceFormFilter() throws IOException {
+        File filterFile = File.createTempFile("filter", ".bin");
+        filterFile.deleteOnExit();
+        fsm.saveSurfaceFormFilter(filterFile.getPath(), 5, 0.01);
+        FsmMorphologicalAnalyzer loaded = new FsmMorphologicalAnalyzer();
+        assertTrue(loaded.loadSurfaceFormFilter(filterFile.getPath()));
+        String[] testWords = {"evde", "kitap", "ona", "geldi", "xqzwv", "evdex", "3", "evlerimizde", "xqzwvbn"};
+        for (String word : testWords) {
+            assertEquals(fsm.morphologicalAnalysisExists(null, word), loaded.morphologicalAnalysisExists(null, word));
+        }
+        TxtWord newRoot = new TxtWord("zubru", "CL_ISIM");
+        assertTrue(fsm.morphologicalAnalysisExists(newRoot, "zubru"));
+        assertTrue(loaded.morphologicalAnalysisExists(newRoot, "zubru"));
+        assertFalse(analyzerWithDifferentDictionary().loadSurfaceFormFilter(filterFile.getPath()));
+        PrintWriter output = new PrintWriter(filterFile);
+        output.println("not a filter");
+        output.close();
+        assertFalse(new FsmMorphologicalAnalyzer().loadSurfaceFormFilter(filterFile.getPath()));
+    }
+
+    @Test
+    public void testImage() throws IOException {
+        File imageFile = File.createTempFile("analyzer", ".bin");
+        imageFile.deleteOnExit();
+        fsm.saveImage(imageFile.getPath());
+        FsmMorphologicalAnalyzer loaded = new FsmMorphologicalAnalyzer(new AnalyzerImage(imageFile.getPath()), fsm.getDictionary(), 1000);
+        assertEquals(CacheSnapshot.fingerprint(fsm.getFiniteStateMachine()), CacheSnapshot.fingerprint(loaded.getFiniteStateMachine()));
+        String[] testWords = {"evlerimizde", "Hemşirenle", "3'ü", "Stephen'ın", "googlecılardan", "xqzwvbn"};
+        for (String word : testWords) {
+            assertEquals(fsm.robustMorphologicalAnalysis(word).toString(), loaded.robustMorphologicalAnalysis(word).toString());
+        }
+    }
+}
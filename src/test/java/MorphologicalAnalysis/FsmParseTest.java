@@ -55,6 +55,16 @@ public class FsmParseTest {
         assertEquals("mi+QUES+PRES+A3SG", parse10.toString());
     }
 
+    @Test
+    public void testTransitionListAfterAddSuffix() {
+        assertEquals("topla+NOUN+A3SG+P1SG+DAT", parse3.transitionList());
+        FsmParse parse = parse3.clone();
+        parse.addSuffix(new State("Test", false, true), "toplamaydı", "^DB+VERB+ZERO+PAST+A3SG", "ydH", null);
+        assertEquals("topla+NOUN+A3SG+P1SG+DAT^DB+VERB+ZERO+PAST+A3SG", parse.transitionList());
+        assertEquals("topla+NOUN+A3SG+P1SG+DAT", parse3.transitionList());
+        assertTrue(parse3.compareTo(parse) < 0);
+    }
+
     @Test
     public void testWithList() {
         assertEquals("aç+Hl+Hr", parse1.withList());
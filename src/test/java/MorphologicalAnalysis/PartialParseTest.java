@@ -0,0 +1,84 @@
+package MorphologicalAnalysis;
+
+import Dictionary.TxtWord;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class PartialParseTest {
+    FiniteStateMachine fsm;
+
+    @Before
+    public void setUp() {
+        fsm = new FiniteStateMachine("turkish_finite_state_machine.xml");
+    }
+
+    @Test
+    public void testTransitionList() {
+        TxtWord root = new TxtWord("ev", "CL_ISIM");
+        PartialParse initialParse = new PartialParse(new FsmParse(root, fsm.getState("NominalRoot")));
+        assertEquals("ev+NOUN", initialParse.transitionList());
+        int count = 0;
+        for (Transition first : fsm.getTransitionArray(initialParse.getState())) {
+            PartialParse firstParse = new PartialParse(initialParse, first, first.makeTransition(root, initialParse.getSurfaceForm(), initialParse.getStartState()));
+            for (Transition second : fsm.getTransitionArray(firstParse.getState())) {
+                PartialParse secondParse = new PartialParse(firstParse, second, second.makeTransition(root, firstParse.getSurfaceForm(), firstParse.getStartState()));
+                FsmParse fsmParse = secondParse.toFsmParse();
+                assertEquals(fsmParse.transitionList(), secondParse.transitionList());
+                assertEquals(fsmParse.transitionList().hashCode(), secondParse.transitionListHash());
+                assertEquals(fsmParse.getSurfaceForm(), secondParse.getSurfaceForm());
+                count++;
+            }
+        }
+        assertTrue(count > 0);
+    }
+
+    private ArrayList<PartialParse> extend(ArrayList<PartialParse> parses, TxtWord root) {
+        ArrayList<PartialParse> result = new ArrayList<>();
+        for (PartialParse parse : parses) {
+            for (Transition transition : fsm.getTransitionArray(parse.getState())) {
+                result.add(new PartialParse(parse, transition, transition.makeTransition(root, parse.getSurfaceForm(), parse.getStartState())));
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testPaths() {
+        TxtWord root = new TxtWord("ev", "CL_ISIM");
+        ArrayList<PartialParse> parses = new ArrayList<>();
+        parses.add(new PartialParse(new FsmParse(root, fsm.getState("NominalRoot"))));
+        ArrayList<PartialParse> configurations = new ArrayList<>(parses);
+        for (int i = 0; i < 3; i++) {
+            PartialParseQueue queue = new PartialParseQueue();
+            parses = extend(parses, root);
+            for (PartialParse parse : extend(configurations, root)) {
+                queue.add(parse);
+            }
+            configurations.clear();
+            while (!queue.isEmpty()) {
+                configurations.add(queue.remove());
+            }
+        }
+        assertTrue(configurations.size() < parses.size());
+        ArrayList<String> expected = new ArrayList<>();
+        for (PartialParse parse : parses) {
+            expected.add(parse.getSurfaceForm() + " " + parse.transitionList());
+        }
+        ArrayList<String> paths = new ArrayList<>();
+        for (PartialParse configuration : configurations) {
+            for (PartialParse path : configuration.paths()) {
+                assertTrue(path.sameConfiguration(configuration));
+                paths.add(path.getSurfaceForm() + " " + path.transitionList());
+            }
+        }
+        Collections.sort(expected);
+        Collections.sort(paths);
+        assertEquals(expected, paths);
+    }
+
+}
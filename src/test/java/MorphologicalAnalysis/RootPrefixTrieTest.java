@@ -0,0 +1,93 @@
+package MorphologicalAnalysis;
+
+import Dictionary.Trie.Trie;
+import Dictionary.TxtDictionary;
+import Dictionary.TxtWord;
+import Dictionary.Word;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class RootPrefixTrieTest {
+    TxtDictionary dictionary;
+    Trie dictionaryTrie;
+    RootPrefixTrie rootPrefixTrie;
+
+    @Before
+    public void setUp() {
+        dictionary = new TxtDictionary();
+        dictionaryTrie = dictionary.prepareTrie();
+        rootPrefixTrie = new RootPrefixTrie(dictionary, dictionaryTrie);
+    }
+
+    @Test
+    public void testForEachRoot() {
+        String[] surfaceForms = {"evlerimizde", "kitabı", "Ankara'da", "çocuklar", "evlerinizden", "xqzw"};
+        for (int i = 0; i < 2; i++) {
+            for (String surfaceForm : surfaceForms) {
+                ArrayList<TxtWord> roots = new ArrayList<>();
+                assertTrue(rootPrefixTrie.forEachRoot(surfaceForm, roots::add));
+                assertEquals(dictionaryTrie.getWordsWithPrefix(surfaceForm), new HashSet<Word>(roots));
+                assertEquals(roots.size(), new HashSet<>(roots).size());
+            }
+        }
+        int length = Integer.MAX_VALUE;
+        ArrayList<TxtWord> roots = new ArrayList<>();
+        rootPrefixTrie.forEachRoot("evlerimizde", roots::add);
+        for (TxtWord root : roots) {
+            if ("evlerimizde".startsWith(root.getName())) {
+                assertTrue(root.getName().length() <= length);
+                length = root.getName().length();
+            }
+        }
+    }
+
+    @Test
+    public void testAllWords() throws IOException {
+        ArrayList<String> surfaceForms = new ArrayList<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            String name = dictionary.getWord(i).getName();
+            surfaceForms.add(name);
+            InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream("parses/" + name + ".txt");
+            if (inputStream != null) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    surfaceForms.add(line.split(" ")[0]);
+                }
+                reader.close();
+            }
+        }
+        for (String surfaceForm : surfaceForms) {
+            ArrayList<TxtWord> roots = new ArrayList<>();
+            assertTrue(rootPrefixTrie.forEachRoot(surfaceForm, roots::add));
+            assertEquals(surfaceForm, dictionaryTrie.getWordsWithPrefix(surfaceForm), new HashSet<Word>(roots));
+            assertEquals(surfaceForm, roots.size(), new HashSet<>(roots).size());
+        }
+    }
+
+    @Test
+    public void testEarlyExit() {
+        ArrayList<TxtWord> roots = new ArrayList<>();
+        rootPrefixTrie.forEachRoot("evlerimizde", roots::add);
+        int[] count = {0};
+        assertFalse(rootPrefixTrie.forEachRoot("evlerimizde", root -> ++count[0] < 1));
+        assertEquals(1, count[0]);
+        TxtWord[] first = new TxtWord[1];
+        rootPrefixTrie.forEachRoot("evlerimizde", root -> {
+            first[0] = root;
+            return false;
+        });
+        assertSame(roots.get(0), first[0]);
+    }
+
+}
@@ -0,0 +1,42 @@
+package MorphologicalAnalysis;
+
+import Dictionary.TxtWord;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SuffixTailTest {
+
+    @Test
+    public void testKey() {
+        State state = new State("NominalRoot", true, false);
+        TxtWord ev = new TxtWord("ev", "CL_ISIM");
+        int rootFlags = SuffixTail.rootFlags(ev);
+        assertEquals(new SuffixTail.Key(state, false, rootFlags, "evler", "evlerinden"), new SuffixTail.Key(state, false, rootFlags, "geceler", "gecelerinden"));
+        assertEquals(new SuffixTail.Key(state, false, rootFlags, "evler", "evlerinden").hashCode(), new SuffixTail.Key(state, false, rootFlags, "geceler", "gecelerinden").hashCode());
+        assertFalse(new SuffixTail.Key(state, false, rootFlags, "evler", "evlerinden").equals(new SuffixTail.Key(state, false, rootFlags, "evler", "evlerinde")));
+        assertFalse(new SuffixTail.Key(state, false, rootFlags, "evler", "evlerinden").equals(new SuffixTail.Key(state, false, rootFlags, "okuler", "okulerinden")));
+        assertEquals(-1, SuffixTail.rootFlags(new TxtWord("3", "IS_SAYI")));
+        assertEquals(-1, SuffixTail.rootFlags(new TxtWord("ab", "IS_KIS")));
+    }
+
+    @Test
+    public void testSharedTail() {
+        FsmMorphologicalAnalyzer forward = new FsmMorphologicalAnalyzer(0);
+        FsmMorphologicalAnalyzer backward = new FsmMorphologicalAnalyzer(0);
+        String[] words = {"kedilerinden", "evlerinden", "çocuklarımızdan", "kitaplarımızdan", "gelmişsiniz", "görmüşsünüz", "evlerimizde"};
+        FsmParseList[] forwardParses = new FsmParseList[words.length];
+        for (int i = 0; i < words.length; i++) {
+            forwardParses[i] = forward.morphologicalAnalysis(words[i]);
+        }
+        for (int i = words.length - 1; i >= 0; i--) {
+            FsmParseList backwardParses = backward.morphologicalAnalysis(words[i]);
+            assertEquals(backwardParses.size(), forwardParses[i].size());
+            for (int j = 0; j < backwardParses.size(); j++) {
+                assertEquals(backwardParses.getFsmParse(j).transitionList(), forwardParses[i].getFsmParse(j).transitionList());
+            }
+            assertEquals(backwardParses.size() != 0, forward.morphologicalAnalysisExists(null, words[i]));
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package MorphologicalAnalysis;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class TokenClassifierTest {
+
+    @Test
+    public void testClassify() {
+        assertEquals(TokenType.WORD, TokenClassifier.classify("evlerimizde"));
+        assertEquals(TokenType.INTEGER, TokenClassifier.classify("-123"));
+        assertEquals(TokenType.WORD, TokenClassifier.classify("2147483648"));
+        assertEquals(TokenType.ORDINAL, TokenClassifier.classify("15."));
+        assertEquals(TokenType.REAL, TokenClassifier.classify("3.45"));
+        assertEquals(TokenType.REAL, TokenClassifier.classify(".5"));
+        assertEquals(TokenType.FRACTION, TokenClassifier.classify("3/4"));
+        assertEquals(TokenType.ESCAPED_FRACTION, TokenClassifier.classify("3\\/4"));
+        assertEquals(TokenType.DATE, TokenClassifier.classify("3/10/2023"));
+        assertEquals(TokenType.DATE, TokenClassifier.classify("2.3.2012"));
+        assertEquals(TokenType.PERCENT, TokenClassifier.classify("%56.786"));
+        assertEquals(TokenType.WORD, TokenClassifier.classify("%123"));
+        assertEquals(TokenType.TIME, TokenClassifier.classify("12:56:07"));
+        assertEquals(TokenType.RANGE, TokenClassifier.classify("123-1400"));
+        assertEquals(TokenType.RANGE, TokenClassifier.classify("12:34-15:48"));
+        assertEquals(TokenType.RANGE, TokenClassifier.classify("3.45-4.67"));
+        assertEquals(TokenType.HASHTAG, TokenClassifier.classify("#istanbul"));
+        assertEquals(TokenType.EMAIL, TokenClassifier.classify("ali@gmail.com"));
+    }
+
+    @Test
+    public void testLowerCase() {
+        Locale turkish = new Locale("tr");
+        String[] words = {"IŞIK", "İSTANBUL", "Çağrı", "evler", "ÂLİ", "ΣΟΦΙΑ", "İ"};
+        for (String word : words) {
+            assertEquals(word.toLowerCase(turkish), TokenClassifier.toLowerCase(word));
+            assertEquals(word.toLowerCase(turkish), new TokenClassifier(word).getLowerCased());
+        }
+        assertSame("evler", TokenClassifier.toLowerCase("evler"));
+    }
+
+}
@@ -1,5 +1,6 @@
 package MorphologicalAnalysis;
 
+import Dictionary.TxtWord;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -13,6 +14,23 @@ public class TransitionTest {
         fsm = new FsmMorphologicalAnalyzer();
     }
 
+    @Test
+    public void testMakeTransition() {
+        TxtWord ev = new TxtWord("ev", "CL_ISIM");
+        TxtWord gel = new TxtWord("gel", "CL_FIIL");
+        TxtWord ankara = new TxtWord("ankara", "IS_OA");
+        assertEquals("evler", new Transition("lAr").makeTransition(ev, "ev"));
+        assertEquals("evlerimiz", new Transition("HmHz").makeTransition(ev, "evler"));
+        assertEquals("evde", new Transition("DA").makeTransition(ev, "ev"));
+        assertEquals("geliyor", new Transition("Hyor").makeTransition(gel, "gel"));
+        assertEquals("gelmiş", new Transition("mHs").makeTransition(gel, "gel"));
+        assertEquals("ankara'da", new Transition("'DA").makeTransition(ankara, "ankara"));
+        assertEquals("ankara'yı", new Transition("'yH").makeTransition(ankara, "ankara"));
+        assertEquals("ev", new Transition("0").makeTransition(ev, "ev"));
+        assertEquals("evlerimizde", new Transition("lArHmHzDA").makeTransition(ev, "ev", new State("NominalRoot", true, false), 'e'));
+        assertEquals("3'te", new Transition("'DA").makeTransition(new TxtWord("3", "IS_SAYI"), "3", new State("CardinalRoot", true, false), (char) 0));
+    }
+
     @Test
     public void testNumberWithAccusative() {
         assertTrue(fsm.morphologicalAnalysis("2'yi").size() != 0);